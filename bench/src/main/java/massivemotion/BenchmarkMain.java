@@ -0,0 +1,29 @@
+package massivemotion;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}.
+ * <p>
+ * Accepts the usual JMH command line and always attaches the GC profiler, so every
+ * result comes with its allocation rate ({@code gc.alloc.rate.norm}) next to the timing.
+ */
+public class BenchmarkMain {
+    /**
+     * Runs the selected benchmarks with the GC profiler attached.
+     *
+     * @param args standard JMH command line options
+     * @throws Exception if the options cannot be parsed or a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,68 @@
+package massivemotion;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times one move-and-cull step over a fixed population, comparing the per-object path
+ * ({@code MotionBody.move()} and {@code Body.isOutOfBounds} through a {@link ListBodyStore})
+ * with the structure-of-arrays store driven by the scalar and Vector API kernels.
+ * <p>
+ * The window is so large that no body ever leaves it, so every invocation does the same
+ * work: move all bodies and test all of them against the bounds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class KernelBenchmark {
+
+    /** Window side; bodies start in the middle and move at most 20 pixels per tick. */
+    private static final int WINDOW = Integer.MAX_VALUE;
+
+    /** {@code object} for the list of bodies, or the {@code kernel} key of the SoA store. */
+    @Param({"object", "scalar", "vector"})
+    public String path;
+
+    /** Number of bodies moved per step. */
+    @Param({"1000", "100000"})
+    public int population;
+
+    private BodyStore store;
+
+    @Setup(Level.Trial)
+    public void createStore() {
+        if (path.equals("object")) {
+            store = new ListBodyStore(Simulation.createList("arraylist"));
+        }
+        else {
+            store = new SoaBodyStore(population, IntegrationKernel.create(path));
+        }
+        Random rand = new Random(42);
+        for (int i = 0; i < population; i++) {
+            store.add(WINDOW / 2.0 + rand.nextInt(1000), WINDOW / 2.0 + rand.nextInt(1000),
+                    rand.nextInt(41) - 20, rand.nextInt(41) - 20, 10, 1E21);
+        }
+    }
+
+    @Benchmark
+    public int step() {
+        store.step(WINDOW, WINDOW);
+        return store.size();
+    }
+}
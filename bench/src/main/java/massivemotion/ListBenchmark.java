@@ -0,0 +1,109 @@
+package massivemotion;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link List} implementations on the access patterns the simulation produces:
+ * appending freshly spawned bodies, scanning by index (the pattern {@code actionPerformed}
+ * used to have), scanning with the iterator, and removing bodies from scattered positions
+ * while the population stays constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+    /** Number of precomputed removal positions; a power of two so the cursor can wrap with a mask. */
+    private static final int INDICES = 1024;
+
+    /** The list implementation under test, as named by the {@code list} config key. */
+    @Param({"arraylist", "single", "double", "dummyhead", "unrolled", "ring", "tree", "adaptive"})
+    public String list;
+
+    /** Number of bodies held in the list. */
+    @Param({"100", "1000", "10000"})
+    public int population;
+
+    /** Bodies appended by {@link #spawn()}, allocated once so only the list is measured. */
+    private Body[] spawned;
+    /** List filled with {@link #population} bodies before each iteration. */
+    private List<Body> bodies;
+    /** Scattered removal positions, all below {@link #population}. */
+    private int[] removeAt;
+    /** Next entry of {@link #removeAt} to use. */
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void createBodies() {
+        Random rand = new Random(42);
+        spawned = new Body[population];
+        for (int i = 0; i < population; i++) {
+            spawned[i] = new MotionBody(rand.nextInt(1000), rand.nextInt(700), 1, 1, 10, 1E21);
+        }
+        removeAt = new int[INDICES];
+        for (int i = 0; i < INDICES; i++) {
+            removeAt[i] = rand.nextInt(population);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void fillList() {
+        bodies = Simulation.createList(list);
+        for (Body body : spawned) {
+            bodies.add(body);
+        }
+        cursor = 0;
+    }
+
+    /** Appends a whole population to an empty list, as a burst of spawns would. */
+    @Benchmark
+    public List<Body> spawn() {
+        List<Body> fresh = Simulation.createList(list);
+        for (Body body : spawned) {
+            fresh.add(body);
+        }
+        return fresh;
+    }
+
+    /** Visits every body through {@code get(i)}. */
+    @Benchmark
+    public void indexedScan(Blackhole bh) {
+        for (int i = 0; i < bodies.size(); i++) {
+            bh.consume(bodies.get(i));
+        }
+    }
+
+    /** Visits every body through the iterator. */
+    @Benchmark
+    public void iteratorScan(Blackhole bh) {
+        for (Body body : bodies) {
+            bh.consume(body);
+        }
+    }
+
+    /** Removes a body from a scattered position and appends it again, keeping the population steady. */
+    @Benchmark
+    public Body middleRemoval() {
+        Body body = bodies.remove(removeAt[cursor]);
+        cursor = (cursor + 1) & (INDICES - 1);
+        bodies.add(body);
+        return body;
+    }
+}
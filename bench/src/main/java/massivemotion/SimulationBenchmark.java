@@ -0,0 +1,73 @@
+package massivemotion;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full {@link Simulation#tick()} (spawn, move, cull) for each body store at
+ * several spawn rates and body speeds. Slower bodies stay on screen longer, so the
+ * {@code body_velocity} parameter is what sets the steady-state population.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+    /** Ticks run before measuring so the population has reached steady state. */
+    private static final int SETTLE_TICKS = 5000;
+
+    @Param({"arraylist", "single", "double", "dummyhead", "unrolled", "ring", "tree", "adaptive", "soa", "offheap"})
+    public String list;
+
+    @Param({"0.08", "1.0"})
+    public String gen_x;
+
+    @Param({"0.03", "1.0"})
+    public String gen_y;
+
+    @Param({"20", "2"})
+    public String body_velocity;
+
+    private Simulation simulation;
+
+    @Setup(Level.Trial)
+    public void createSimulation() {
+        Properties prop = new Properties();
+        prop.setProperty("list", list);
+        prop.setProperty("window_size_x", "1000");
+        prop.setProperty("window_size_y", "700");
+        prop.setProperty("gen_x", gen_x);
+        prop.setProperty("gen_y", gen_y);
+        prop.setProperty("body_size", "10");
+        prop.setProperty("body_velocity", body_velocity);
+        prop.setProperty("star_position_x", "500");
+        prop.setProperty("star_position_y", "350");
+        prop.setProperty("star_size", "50");
+        prop.setProperty("seed", "42");
+        simulation = new Simulation(new ConfigReader(prop));
+        for (int i = 0; i < SETTLE_TICKS; i++) {
+            simulation.tick();
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        simulation.tick();
+        return simulation.getBodies().size();
+    }
+}
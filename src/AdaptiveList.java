@@ -0,0 +1,250 @@
+import java.util.Iterator;
+import java.util.function.Predicate;
+/**
+ * A list that keeps its elements in either an {@link ArrayList} or an {@link UnrolledLinkedList}
+ * and moves them to the other one when the way it is being used changes.
+ * <p>
+ * Every operation adds its estimated cost under both layouts to two running totals. An array
+ * is cheap to index and iterate but shifts on every middle insertion or removal; the unrolled
+ * list skips nodes to reach an index but only shifts within one node. The relative costs below
+ * are rough per-element figures taken from {@code ListBenchmark}.
+ * <p>
+ * After each window of {@value #WINDOW} operations the totals are compared. The list only
+ * migrates once the other layout has been at least {@value #MARGIN_PERCENT}% cheaper for
+ * {@value #STREAK} windows in a row, and the saving over those windows covers the cost of
+ * copying every element across; this hysteresis stops it flapping between the two on a mixed
+ * workload. Migration only happens during a structural change (an add, remove or removeIf),
+ * which already invalidates any open iterator.
+ *
+ * @param <T> the type of elements stored in the list
+ */
+public class AdaptiveList<T> implements List<T>{
+    /** Operations per window between cost comparisons. */
+    public static final int WINDOW = 4096;
+    /** How much cheaper, in percent, the other layout must be to count towards a switch. */
+    public static final int MARGIN_PERCENT = 25;
+    /** Consecutive windows the other layout must win before the list migrates. */
+    public static final int STREAK = 3;
+    /** Cost of shifting one element one slot, relative to one plain access. */
+    private static final double SHIFT = 0.1;
+    /** Cost of skipping one unrolled node while searching for an index. */
+    private static final double HOP = 2;
+    /** Cost of visiting one element while iterating an unrolled list. */
+    private static final double UNROLLED_VISIT = 1.5;
+    /** Cost of copying one element into the other layout. */
+    private static final double MIGRATE = 2;
+    /** Elements per unrolled node. */
+    private static final int NODE = UnrolledLinkedList.DEFAULT_NODE_CAPACITY;
+
+    /** The list currently holding the elements. */
+    private List<T> backing;
+    /** Whether {@link #backing} is the array layout. */
+    private boolean arrayBacked;
+    /** Estimated cost of this window's operations on an array. */
+    private double arrayCost;
+    /** Estimated cost of this window's operations on an unrolled list. */
+    private double unrolledCost;
+    /** Operations recorded in this window. */
+    private int ops;
+    /** Consecutive windows the other layout has won. */
+    private int streak;
+    /** Number of migrations so far. */
+    private int migrations;
+    /**
+     * Creates an empty adaptive list, starting with the array layout.
+     */
+    public AdaptiveList(){
+        this.backing = new ArrayList<>();
+        this.arrayBacked = true;
+    }
+    /**
+     * Inserts an element at the specified position in the list.
+     *
+     * @param index   the position at which the element is to be inserted
+     * @param element the element to insert
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size)
+     */
+    public void add(int index, T element){
+        if (index == backing.size()){
+            add(element);
+            return;
+        }
+        adapt();
+        recordPositional(index);
+        backing.add(index, element);
+    }
+    /**
+     * Appends an element to the end of the list.
+     *
+     * @param element the element to be added
+     * @return {@code true} if the element was successfully added
+     */
+    public boolean add(T element){
+        adapt();
+        arrayCost += 1;
+        unrolledCost += 1;
+        ops++;
+        return backing.add(element);
+    }
+    /**
+     * Returns the element at the specified position in the list.
+     *
+     * @param index the position of the element to retrieve
+     * @return the element at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size)
+     */
+    public T get(int index){
+        arrayCost += 1;
+        unrolledCost += 1 + hops(index) * HOP;
+        ops++;
+        return backing.get(index);
+    }
+    /**
+     * Removes the element at the specified position in the list.
+     *
+     * @param index the position of the element to be removed
+     * @return the element that was removed
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size)
+     */
+    public T remove(int index){
+        adapt();
+        recordPositional(index);
+        return backing.remove(index);
+    }
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return the current size of the list
+     */
+    public int size(){
+        return backing.size();
+    }
+    /**
+     * Removes every element that satisfies the given predicate, in one pass over the current layout.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     */
+    public boolean removeIf(Predicate<? super T> filter){
+        adapt();
+        int n = backing.size();
+        arrayCost += n;
+        unrolledCost += n * UNROLLED_VISIT;
+        ops += n;
+        return backing.removeIf(filter);
+    }
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public Iterator<T> iterator(){
+        return new AdaptiveListIterator(backing.iterator());
+    }
+    /**
+     * Returns whether the elements are currently held in the array layout.
+     *
+     * @return {@code true} for the array layout, {@code false} for the unrolled list
+     */
+    public boolean isArrayBacked(){
+        return arrayBacked;
+    }
+    /**
+     * Returns how many times the list has moved its elements to the other layout.
+     *
+     * @return the number of migrations
+     */
+    public int getMigrations(){
+        return migrations;
+    }
+    /**
+     * Records an insertion or removal at {@code index}: the array shifts everything after it,
+     * the unrolled list skips to its node and shifts about half a node.
+     */
+    private void recordPositional(int index){
+        arrayCost += 1 + (backing.size() - index) * SHIFT;
+        unrolledCost += 1 + hops(index) * HOP + NODE / 2 * SHIFT;
+        ops++;
+    }
+    /**
+     * Returns the number of unrolled nodes skipped to reach {@code index} from the nearer end.
+     */
+    private double hops(int index){
+        int n = backing.size();
+        return Math.min(index, n - index) / (double) NODE;
+    }
+    /**
+     * Closes the window once it is full and migrates if the other layout has won for
+     * {@link #STREAK} windows by enough to pay for the copy.
+     */
+    private void adapt(){
+        if (ops < WINDOW){
+            return;
+        }
+        double current = arrayBacked ? arrayCost : unrolledCost;
+        double other = arrayBacked ? unrolledCost : arrayCost;
+        if (other < current * (100 - MARGIN_PERCENT) / 100.0){
+            streak++;
+        }
+        else{
+            streak = 0;
+        }
+        if (streak >= STREAK && (current - other) * STREAK >= backing.size() * MIGRATE){
+            migrate();
+            streak = 0;
+        }
+        arrayCost = 0;
+        unrolledCost = 0;
+        ops = 0;
+    }
+    /**
+     * Copies every element, in order, into a new list of the other layout.
+     */
+    private void migrate(){
+        List<T> target = arrayBacked ? new UnrolledLinkedList<>() : new ArrayList<>();
+        for (T element : backing){
+            target.add(element);
+        }
+        backing = target;
+        arrayBacked = !arrayBacked;
+        migrations++;
+    }
+    /**
+     * Iterator over the current layout that records each visit and removal in the cost model.
+     */
+    private class AdaptiveListIterator implements Iterator<T> {
+        /** The iterator of the layout that was current when iteration started. */
+        private final Iterator<T> inner;
+        /** Index of the next element to return. */
+        private int cursor = 0;
+        /**
+         * Wraps the given iterator.
+         *
+         * @param inner the iterator of the backing list
+         */
+        AdaptiveListIterator(Iterator<T> inner){
+            this.inner = inner;
+        }
+
+        public boolean hasNext(){
+            return inner.hasNext();
+        }
+
+        public T next(){
+            T element = inner.next();
+            cursor++;
+            arrayCost += 1;
+            unrolledCost += UNROLLED_VISIT;
+            ops++;
+            return element;
+        }
+
+        public void remove(){
+            inner.remove();
+            cursor--;
+            arrayCost += (backing.size() - cursor) * SHIFT;
+            unrolledCost += NODE / 2 * SHIFT;
+            ops++;
+        }
+    }
+}
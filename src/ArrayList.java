@@ -1,5 +1,13 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 /**
  * A generic dynamic array implementation that mimics the functionality of Java's built-in ArrayList.
+ * <p>
+ * When full, the backing array grows by a configurable factor. After a removal leaves it
+ * less than the shrink threshold full, it is cut back to {@code size * growth_factor} slots
+ * (never below the initial capacity), so a burst of spawns doesn't keep a huge array alive.
  *
  * @param <T> the type of elements stored in the array list
  */
@@ -8,12 +16,42 @@ public class ArrayList<T> implements List<T>{
     private T[] array;
     /** The number of elements currently stored in the array list. */
     private int size;
+    /** The capacity the list starts with and never shrinks below. */
+    private final int initial_capacity;
+    /** Factor the capacity is multiplied by when the array is full. */
+    private final double growth_factor;
+    /** Fill ratio below which a removal shrinks the array; 0 never shrinks. */
+    private final double shrink_threshold;
     /**
-     * Constructs an empty ArrayList with an initial capacity of 10.
+     * Constructs an empty ArrayList with an initial capacity of 10 that doubles when full
+     * and shrinks when less than a quarter full.
      */
-    @SuppressWarnings("unchecked")
     public ArrayList(){
-        array = (T[]) new Object[10];
+        this(10, 2, 0.25);
+    }
+    /**
+     * Constructs an empty ArrayList with the given capacity and resizing policy.
+     *
+     * @param initial_capacity the number of elements the list can hold before growing
+     * @param growth_factor    the factor the capacity is multiplied by when full; must be greater than 1
+     * @param shrink_threshold the fill ratio below which a removal shrinks the array, in [0, 1); 0 never shrinks
+     * @throws IllegalArgumentException if any argument is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayList(int initial_capacity, double growth_factor, double shrink_threshold){
+        if (initial_capacity < 0){
+            throw new IllegalArgumentException("Initial capacity can't be negative: " + initial_capacity);
+        }
+        if (!(growth_factor > 1)){
+            throw new IllegalArgumentException("Growth factor must be greater than 1: " + growth_factor);
+        }
+        if (!(shrink_threshold >= 0 && shrink_threshold < 1)){
+            throw new IllegalArgumentException("Shrink threshold must be in [0, 1): " + shrink_threshold);
+        }
+        this.initial_capacity = initial_capacity;
+        this.growth_factor = growth_factor;
+        this.shrink_threshold = shrink_threshold;
+        array = (T[]) new Object[initial_capacity];
         size = 0;
     }
     /**
@@ -52,9 +90,7 @@ public class ArrayList<T> implements List<T>{
         }
         else{
             checkCapacity();
-            for (int i = size; i > index; i--){
-                array[i] = array[i-1];
-            }
+            System.arraycopy(array, index, array, index + 1, size - index);
             array[index] = element;
             size++;
         }
@@ -66,16 +102,60 @@ public class ArrayList<T> implements List<T>{
      * @return {@code true} if the element was successfully added
      */
     public boolean add (T element) {
-        try{
+        checkCapacity();
+        array[size] = element;
+        size++;
+        return true;
+    }
+    /**
+     * Appends every element of another list, in order, growing the array at most once.
+     * Exactly as many elements are copied as the list held on entry, so a list can be
+     * appended to itself.
+     *
+     * @param elements the list whose elements to append
+     * @return {@code true} if any elements were added
+     */
+    public boolean addAll(List<? extends T> elements){
+        int count = elements.size();
+        if (count == 0){
+            return false;
+        }
+        ensureCapacity(size + count);
+        Iterator<? extends T> it = elements.iterator();
+        for (int i = 0; i < count; i++){
+            array[size] = it.next();
             size++;
-            checkCapacity();
-            array[size-1] = element;
-            return true;
         }
-        catch(Exception e){
-            return false;
+        return true;
+    }
+    /**
+     * Grows the array, if needed, so it can hold at least {@code min_capacity} elements
+     * without another copy. Pre-sizing from the expected population avoids the copies
+     * during ramp-up.
+     *
+     * @param min_capacity the number of elements the list should be able to hold
+     */
+    public void ensureCapacity(int min_capacity){
+        if (min_capacity > array.length){
+            resize(Math.max(min_capacity, grownCapacity()));
+        }
+    }
+    /**
+     * Shrinks the array to exactly the number of elements stored.
+     */
+    public void trimToSize(){
+        if (size < array.length){
+            resize(size);
         }
     }
+    /**
+     * Returns the number of elements the array can hold before it has to grow.
+     *
+     * @return the length of the backing array
+     */
+    public int capacity(){
+        return array.length;
+    }
     /**
      * Removes the element at the specified index and returns it.
      *
@@ -89,32 +169,130 @@ public class ArrayList<T> implements List<T>{
         }
         else{
             T temp =  array[index];
-            for (int i = index; i < size - 1; i++){
-                array[i] =  array[i+1];
-            }
+            System.arraycopy(array, index + 1, array, index, size - index - 1);
             size--;
+            array[size] = null;
+            checkShrink();
             return temp;
         }
     }
+    /**
+     * Removes every element that satisfies the given predicate.
+     * <p>
+     * Survivors are compacted towards the front in one sweep, so culling k
+     * elements costs O(n) rather than O(k*n) shifts.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     */
+    public boolean removeIf(Predicate<? super T> filter){
+        int kept = 0;
+        for (int i = 0; i < size; i++){
+            T element = array[i];
+            if (!filter.test(element)){
+                array[kept] = element;
+                kept++;
+            }
+        }
+        for (int i = kept; i < size; i++){
+            array[i] = null;
+        }
+        boolean removed = kept != size;
+        size = kept;
+        if (removed){
+            checkShrink();
+        }
+        return removed;
+    }
     /**
      * Checks whether the underlying array has enough capacity to add more elements.
      * If not, it will grow the array.
      */
     private void checkCapacity(){
         if (size == array.length){
-            grow();
+            resize(grownCapacity());
         }
     }
     /**
-     * Doubles the capacity of the underlying array when more space is needed.
+     * Shrinks the array to {@code size * growth_factor} slots once it is less than
+     * {@code shrink_threshold} full, keeping at least the initial capacity.
      */
-    @SuppressWarnings("unchecked")
-    private void grow(){
-        T[] newArray = (T[]) new Object[array.length*2];
-        for (int i = 0; i < size; i++){
-            newArray[i] = array[i];
+    private void checkShrink(){
+        if (size < array.length * shrink_threshold){
+            int target = Math.max(initial_capacity, (int) Math.min(Integer.MAX_VALUE - 8, (long) Math.ceil(size * growth_factor)));
+            if (target < array.length){
+                resize(target);
+            }
+        }
+    }
+    /**
+     * Returns the capacity after one growth step: {@code growth_factor} times the current
+     * length, and at least one slot more.
+     */
+    private int grownCapacity(){
+        long grown = (long) (array.length * growth_factor);
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(grown, array.length + 1L));
+    }
+    /**
+     * Copies the elements into a new array of the given length.
+     * Emits a {@link ListResizeEvent} when JFR events are enabled.
+     */
+    private void resize(int capacity){
+        ListResizeEvent event = SimulationEvents.enabled ? new ListResizeEvent() : null;
+        if (event != null){
+            event.begin();
+        }
+        T[] newArray = Arrays.copyOf(array, capacity);
+        if (event != null){
+            event.bodyCount = size;
+            event.list = "arraylist";
+            event.oldCapacity = array.length;
+            event.newCapacity = newArray.length;
+            event.allocated = 16L + 4L * newArray.length;
+            event.commit();
         }
         array = newArray;
     }
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public Iterator<T> iterator(){
+        return new ArrayListIterator();
+    }
+    /**
+     * Iterator that walks the backing array by index.
+     * <p>
+     * Removing through the iterator shifts the tail left and steps the cursor back,
+     * so no element is skipped.
+     */
+    private class ArrayListIterator implements Iterator<T> {
+        /** Index of the next element to return. */
+        private int cursor = 0;
+        /** Index of the element last returned by {@code next()}, or -1 if there is none. */
+        private int lastReturned = -1;
 
+        public boolean hasNext(){
+            return cursor < size;
+        }
+
+        public T next(){
+            if (cursor >= size){
+                throw new NoSuchElementException();
+            }
+            lastReturned = cursor;
+            cursor++;
+            return array[lastReturned];
+        }
+
+        public void remove(){
+            if (lastReturned < 0){
+                throw new IllegalStateException();
+            }
+            ArrayList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+        }
+    }
 }
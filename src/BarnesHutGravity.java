@@ -0,0 +1,236 @@
+import java.util.Arrays;
+/**
+ * Barnes-Hut gravity on a quadtree.
+ * <p>
+ * Each tick the bodies are inserted into a quadtree whose nodes record their total mass
+ * and centre of mass. When computing the pull on a body, a node whose width {@code s}
+ * is small compared to its distance {@code d} ({@code s / d < theta}) is treated as a
+ * single point mass instead of being opened, so a tick costs O(n log n). A {@code theta}
+ * of 0 opens every node and matches {@link DirectGravity} up to rounding.
+ * <p>
+ * The tree is stored in parallel arrays that are reused between ticks, so building it
+ * does not allocate once the population has settled.
+ */
+public class BarnesHutGravity extends GravityEngine {
+    /** Marker for a leaf that holds no body. */
+    private static final int EMPTY = -1;
+    /** Marker for a leaf at the minimum cell size that holds several bodies. */
+    private static final int CLUSTER = -2;
+    /** Cells smaller than this (half-width, in pixels) are not split any further. */
+    private static final double MIN_HALF = 1e-3;
+
+    /** Square of the opening angle. */
+    private double theta2;
+
+    /** Index of the first of each node's four children, or -1 for a leaf. */
+    private int[] child = new int[64];
+    /** Body held by each leaf, or {@link #EMPTY} / {@link #CLUSTER}. */
+    private int[] body = new int[64];
+    /** Centre x-coordinate of each cell. */
+    private double[] cellX = new double[64];
+    /** Centre y-coordinate of each cell. */
+    private double[] cellY = new double[64];
+    /** Half-width of each cell. */
+    private double[] half = new double[64];
+    /** Total mass inside each cell. */
+    private double[] nodeMass = new double[64];
+    /** Mass-weighted sum of x-coordinates inside each cell. */
+    private double[] momentX = new double[64];
+    /** Mass-weighted sum of y-coordinates inside each cell. */
+    private double[] momentY = new double[64];
+    /** Number of nodes in use. */
+    private int nodes;
+    /** Work stack for the force walk. */
+    private int[] stack = new int[64];
+    /**
+     * Constructs a Barnes-Hut engine.
+     *
+     * @param theta          the opening angle; smaller is more accurate and slower
+     * @param distance_scale metres represented by one pixel
+     * @param time_scale     seconds represented by one tick
+     * @param softening      softening length, in pixels
+     */
+    public BarnesHutGravity(double theta, double distance_scale, double time_scale, double softening){
+        super(distance_scale, time_scale, softening);
+        this.theta2 = theta * theta;
+    }
+    /**
+     * Builds the quadtree and kicks every body by the approximated pull of all the others.
+     *
+     * @param bodies the bodies to update
+     */
+    public void apply(BodyBuffer bodies){
+        int n = bodies.count;
+        if (n < 2){
+            return;
+        }
+        centres(bodies);
+        build(bodies.mass, n);
+        for (int i = 0; i < n; i++){
+            kick(bodies, i);
+        }
+    }
+    /**
+     * Inserts every body into a fresh tree whose root square covers all of them.
+     */
+    private void build(double[] mass, int n){
+        double minX = cx[0];
+        double maxX = cx[0];
+        double minY = cy[0];
+        double maxY = cy[0];
+        for (int i = 1; i < n; i++){
+            minX = Math.min(minX, cx[i]);
+            maxX = Math.max(maxX, cx[i]);
+            minY = Math.min(minY, cy[i]);
+            maxY = Math.max(maxY, cy[i]);
+        }
+        nodes = 0;
+        int root = newNode((minX + maxX) * 0.5, (minY + maxY) * 0.5,
+                Math.max(maxX - minX, maxY - minY) * 0.5 + 1);
+        for (int i = 0; i < n; i++){
+            insert(root, i, mass);
+        }
+    }
+    /**
+     * Walks down from {@code node}, adding the body's mass to every cell on the way, and
+     * stores it in the first empty leaf, splitting occupied leaves as needed.
+     */
+    private void insert(int node, int b, double[] mass){
+        double m = mass[b];
+        double x = cx[b];
+        double y = cy[b];
+        while (true){
+            nodeMass[node] += m;
+            momentX[node] += m * x;
+            momentY[node] += m * y;
+            if (child[node] >= 0){
+                node = child[node] + quadrant(node, x, y);
+                continue;
+            }
+            if (body[node] == EMPTY){
+                body[node] = b;
+                return;
+            }
+            if (half[node] < MIN_HALF){
+                body[node] = CLUSTER;
+                return;
+            }
+            // split the leaf and push its current body one level down
+            int existing = body[node];
+            body[node] = EMPTY;
+            split(node);
+            double em = mass[existing];
+            int q = child[node] + quadrant(node, cx[existing], cy[existing]);
+            nodeMass[q] = em;
+            momentX[q] = em * cx[existing];
+            momentY[q] = em * cy[existing];
+            body[q] = existing;
+            node = child[node] + quadrant(node, x, y);
+        }
+    }
+    /**
+     * Returns which of the four children of {@code node} contains the point.
+     */
+    private int quadrant(int node, double x, double y){
+        int q = 0;
+        if (x >= cellX[node]){
+            q += 1;
+        }
+        if (y >= cellY[node]){
+            q += 2;
+        }
+        return q;
+    }
+    /**
+     * Creates the four children of a leaf.
+     */
+    private void split(int node){
+        double h = half[node] * 0.5;
+        int first = newNode(cellX[node] - h, cellY[node] - h, h);
+        newNode(cellX[node] + h, cellY[node] - h, h);
+        newNode(cellX[node] - h, cellY[node] + h, h);
+        newNode(cellX[node] + h, cellY[node] + h, h);
+        child[node] = first;
+    }
+    /**
+     * Appends an empty leaf and returns its index, growing the node arrays if needed.
+     */
+    private int newNode(double x, double y, double h){
+        if (nodes == child.length){
+            int capacity = child.length * 2;
+            child = Arrays.copyOf(child, capacity);
+            body = Arrays.copyOf(body, capacity);
+            cellX = Arrays.copyOf(cellX, capacity);
+            cellY = Arrays.copyOf(cellY, capacity);
+            half = Arrays.copyOf(half, capacity);
+            nodeMass = Arrays.copyOf(nodeMass, capacity);
+            momentX = Arrays.copyOf(momentX, capacity);
+            momentY = Arrays.copyOf(momentY, capacity);
+        }
+        int node = nodes++;
+        child[node] = -1;
+        body[node] = EMPTY;
+        cellX[node] = x;
+        cellY[node] = y;
+        half[node] = h;
+        nodeMass[node] = 0;
+        momentX[node] = 0;
+        momentY[node] = 0;
+        return node;
+    }
+    /**
+     * Walks the tree for body {@code i} and adds the resulting acceleration to its velocity.
+     */
+    private void kick(BodyBuffer bodies, int i){
+        double xi = cx[i];
+        double yi = cy[i];
+        double ax = 0;
+        double ay = 0;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0){
+            int node = stack[--top];
+            double m = nodeMass[node];
+            if (m == 0 || body[node] == i){
+                continue;
+            }
+            double mx = momentX[node];
+            double my = momentY[node];
+            if (child[node] >= 0){
+                double dx = mx / m - xi;
+                double dy = my / m - yi;
+                double width = half[node] * 2;
+                if (width * width >= theta2 * (dx * dx + dy * dy)){
+                    if (top + 4 > stack.length){
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    int first = child[node];
+                    stack[top++] = first;
+                    stack[top++] = first + 1;
+                    stack[top++] = first + 2;
+                    stack[top++] = first + 3;
+                    continue;
+                }
+            }
+            else if (body[node] == CLUSTER && Math.abs(xi - cellX[node]) <= half[node]
+                    && Math.abs(yi - cellY[node]) <= half[node]){
+                // the body is part of this cluster, so leave its own mass out
+                double mi = bodies.mass[i];
+                m -= mi;
+                mx -= mi * xi;
+                my -= mi * yi;
+                if (m <= 0){
+                    continue;
+                }
+            }
+            double dx = mx / m - xi;
+            double dy = my / m - yi;
+            double d2 = dx * dx + dy * dy + softening2;
+            double inv = strength * m / (d2 * Math.sqrt(d2));
+            ax += dx * inv;
+            ay += dy * inv;
+        }
+        bodies.vx[i] += ax;
+        bodies.vy[i] += ay;
+    }
+}
@@ -2,26 +2,44 @@ import java.awt.*;
 /**
  * An abstract class representing a generic body in a simulation or graphical environment.
  * <p>
- * Each body has a position (x, y) and a defined size. Subclasses must define how the body moves.
+ * Each body has a position (x, y), a velocity, a defined size and a mass. Positions and
+ * velocities are kept as {@code double} so that small gravitational accelerations
+ * accumulate instead of being truncated to whole pixels. Subclasses must define how the body moves.
  */
 public abstract class Body {
+    /** Type tag for a moving body. */
+    public static final byte MOTION = 0;
+    /** Type tag for a star. */
+    public static final byte STAR = 1;
     /** The x-coordinate of the body's position. */
-    protected int x;
+    protected double x;
     /** The y-coordinate of the body's position. */
-    protected int y;
+    protected double y;
+    /** The velocity of the body in the x-direction, in pixels per tick. */
+    protected double vx;
+    /** The velocity of the body in the y-direction, in pixels per tick. */
+    protected double vy;
     /** The diameter of the body. */
     protected int body_size;
+    /** The mass of the body, in kilograms. */
+    protected double mass;
     /**
-     * Constructs a Body object with specified position and size.
+     * Constructs a Body object with specified position, velocity, size and mass.
      *
      * @param x          the initial x-coordinate
      * @param y          the initial y-coordinate
+     * @param vx         the velocity in the x-direction
+     * @param vy         the velocity in the y-direction
      * @param body_size  the size (diameter) of the body
+     * @param mass       the mass of the body
      */
-    public Body(int x, int y, int body_size) {
+    public Body(double x, double y, double vx, double vy, int body_size, double mass) {
         this.x = x;
         this.y = y;
+        this.vx = vx;
+        this.vy = vy;
         this.body_size = body_size;
+        this.mass = mass;
     }
     /**
      * Renders the body as a filled oval at its current position and size.
@@ -29,8 +47,15 @@ public abstract class Body {
      * @param g the Graphics context used to draw the body
      */
     public void paintBody(Graphics g){
-        g.fillOval(x, y, body_size, body_size);
+        g.fillOval((int) x, (int) y, body_size, body_size);
     }
+    /**
+     * Returns the type tag of this body, used by renderers that draw bodies without
+     * calling {@link #paintBody(Graphics)}.
+     *
+     * @return {@link #MOTION} or {@link #STAR}
+     */
+    public abstract byte getType();
     /**
      * Moves the body according to its own rules.
      * <p>
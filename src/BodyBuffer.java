@@ -0,0 +1,111 @@
+import java.util.Arrays;
+/**
+ * A reusable structure-of-arrays copy of every body in a {@link BodyStore}.
+ * <p>
+ * Physics passes such as gravity need random access to all positions at once, which the
+ * linked-list stores cannot give cheaply. Instead the store copies its bodies into this
+ * buffer with {@link BodyStore#read(BodyBuffer)}, the pass works on the flat arrays, and
+ * {@link BodyStore#write(BodyBuffer)} copies the results back in the same order, dropping any
+ * body a pass marked with {@link #kill(int)}. The arrays
+ * only ever grow, so a buffer kept across ticks stops allocating once the population settles.
+ */
+public class BodyBuffer {
+    /** The x-coordinate of each body's top-left corner. */
+    public double[] x;
+    /** The y-coordinate of each body's top-left corner. */
+    public double[] y;
+    /** The velocity of each body in the x-direction. */
+    public double[] vx;
+    /** The velocity of each body in the y-direction. */
+    public double[] vy;
+    /** The mass of each body. */
+    public double[] mass;
+    /** The diameter of each body. */
+    public int[] size;
+    /** Whether each body is a {@link Body#MOTION} body or a {@link Body#STAR}; not written back. */
+    public byte[] type;
+    /** Bodies a pass has removed; {@link BodyStore#write(BodyBuffer)} drops them from the store. */
+    public boolean[] dead;
+    /** The number of bodies currently in the buffer. */
+    public int count;
+    /** The number of slots marked in {@link #dead}. */
+    public int removed;
+    /**
+     * Constructs an empty buffer with room for 16 bodies.
+     */
+    public BodyBuffer(){
+        x = new double[16];
+        y = new double[16];
+        vx = new double[16];
+        vy = new double[16];
+        mass = new double[16];
+        size = new int[16];
+        type = new byte[16];
+        dead = new boolean[16];
+        count = 0;
+        removed = 0;
+    }
+    /**
+     * Empties the buffer and makes sure it can hold {@code n} bodies.
+     *
+     * @param n the number of bodies about to be written
+     */
+    public void reset(int n){
+        if (n > x.length){
+            int capacity = Math.max(n, x.length * 2);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            vx = Arrays.copyOf(vx, capacity);
+            vy = Arrays.copyOf(vy, capacity);
+            mass = Arrays.copyOf(mass, capacity);
+            size = Arrays.copyOf(size, capacity);
+            type = Arrays.copyOf(type, capacity);
+            dead = new boolean[capacity];
+        }
+        else{
+            Arrays.fill(dead, 0, n, false);
+        }
+        count = n;
+        removed = 0;
+    }
+    /**
+     * Writes one body into slot {@code i}.
+     *
+     * @param i    the slot to write
+     * @param body the body to copy
+     */
+    public void set(int i, Body body){
+        x[i] = body.x;
+        y[i] = body.y;
+        vx[i] = body.vx;
+        vy[i] = body.vy;
+        mass[i] = body.mass;
+        size[i] = body.body_size;
+        type[i] = body.getType();
+    }
+    /**
+     * Copies slot {@code i} back into a body.
+     *
+     * @param i    the slot to read
+     * @param body the body to update
+     */
+    public void get(int i, Body body){
+        body.x = x[i];
+        body.y = y[i];
+        body.vx = vx[i];
+        body.vy = vy[i];
+        body.mass = mass[i];
+        body.body_size = size[i];
+    }
+    /**
+     * Marks slot {@code i} as removed, so the store drops it on the next write.
+     *
+     * @param i the slot to remove
+     */
+    public void kill(int i){
+        if (!dead[i]){
+            dead[i] = true;
+            removed++;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * A bounded pool of {@link MotionBody} objects for reuse.
+ * <p>
+ * Culled bodies are handed back with {@link #release(MotionBody)} and reset and handed out
+ * again by {@link #acquire}, so a steady stream of spawns and culls stops creating garbage.
+ * The pool holds at most {@code capacity} idle bodies; bodies released while it is full
+ * are left to the garbage collector. Hits and misses are counted so the bound can be tuned.
+ */
+public class BodyPool {
+    /** Idle bodies ready for reuse; slots at or past {@link #idle} are unused. */
+    private MotionBody[] free;
+    /** Number of idle bodies in the pool. */
+    private int idle;
+    /** Number of acquisitions served from the pool. */
+    private long hits;
+    /** Number of acquisitions that had to allocate a new body. */
+    private long misses;
+    /**
+     * Constructs an empty pool.
+     *
+     * @param capacity the maximum number of idle bodies kept for reuse
+     */
+    public BodyPool(int capacity){
+        free = new MotionBody[Math.max(capacity, 0)];
+        idle = 0;
+    }
+    /**
+     * Returns a body with the given state, reusing an idle one when available.
+     *
+     * @param x         the initial x-coordinate of the body
+     * @param y         the initial y-coordinate of the body
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
+     * @param body_size the diameter of the body when drawn
+     * @param mass      the mass of the body
+     * @return a body in the requested state
+     */
+    public MotionBody acquire(double x, double y, double vx, double vy, int body_size, double mass){
+        if (idle == 0){
+            misses++;
+            return new MotionBody(x, y, vx, vy, body_size, mass);
+        }
+        hits++;
+        idle--;
+        MotionBody body = free[idle];
+        free[idle] = null;
+        body.reset(x, y, vx, vy, body_size, mass);
+        return body;
+    }
+    /**
+     * Hands a body that is no longer in the simulation back to the pool.
+     *
+     * @param body the body to recycle; it must not be referenced by any list afterwards
+     */
+    public void release(MotionBody body){
+        if (idle < free.length){
+            free[idle] = body;
+            idle++;
+        }
+    }
+    /**
+     * Returns the number of acquisitions served by reusing an idle body.
+     *
+     * @return the hit count
+     */
+    public long getHits(){
+        return hits;
+    }
+    /**
+     * Returns the number of acquisitions that allocated a new body.
+     *
+     * @return the miss count
+     */
+    public long getMisses(){
+        return misses;
+    }
+    /**
+     * Returns the number of idle bodies currently held.
+     *
+     * @return the idle count
+     */
+    public int getIdle(){
+        return idle;
+    }
+}
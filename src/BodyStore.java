@@ -0,0 +1,76 @@
+import java.util.concurrent.ForkJoinPool;
+/**
+ * Storage for every body taking part in the simulation.
+ * <p>
+ * The simulation only talks to its bodies through this interface, so the way they are
+ * held in memory (a {@link List} of objects, or parallel primitive arrays) can be picked
+ * from the {@code list} key of the property file.
+ */
+public interface BodyStore {
+    /**
+     * Adds a star, which is drawn in red.
+     *
+     * @param x         the x-coordinate of the star
+     * @param y         the y-coordinate of the star
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
+     * @param body_size the size (diameter) of the star
+     * @param mass      the mass of the star
+     */
+    public void addStar(double x, double y, double vx, double vy, int body_size, double mass);
+    /**
+     * Adds a moving body.
+     *
+     * @param x         the initial x-coordinate of the body
+     * @param y         the initial y-coordinate of the body
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
+     * @param body_size the diameter of the body when drawn
+     * @param mass      the mass of the body
+     */
+    public void add(double x, double y, double vx, double vy, int body_size, double mass);
+    /**
+     * Moves every body once and removes the bodies that left the window.
+     *
+     * @param window_size_x the width of the window
+     * @param window_size_y the height of the window
+     */
+    public void step(int window_size_x, int window_size_y);
+    /**
+     * Does the same work as {@link #step(int, int)}, but moves the bodies and marks the ones
+     * outside the window in parallel on the given pool, then removes the marked ones in one
+     * serial compaction pass. The resulting bodies and their order are the same as a serial step.
+     *
+     * @param window_size_x the width of the window
+     * @param window_size_y the height of the window
+     * @param pool          the pool to run the move pass on
+     * @param grain         the number of bodies each fork/join task handles without splitting
+     */
+    public void step(int window_size_x, int window_size_y, ForkJoinPool pool, int grain);
+    /**
+     * Copies every body into the buffer, in store order.
+     *
+     * @param buffer the buffer to fill; it is resized to {@link #size()} bodies
+     */
+    public void read(BodyBuffer buffer);
+    /**
+     * Copies the buffer back into the bodies, in the same order {@link #read(BodyBuffer)} used.
+     * Nothing may be added or removed between the two calls. Bodies marked dead in the
+     * buffer are removed from the store; the order of the survivors is up to the store.
+     *
+     * @param buffer the buffer previously filled by {@link #read(BodyBuffer)}
+     */
+    public void write(BodyBuffer buffer);
+    /**
+     * Hands the position, size and type of every body to the visitor, in store order.
+     *
+     * @param visitor the visitor to call for each body
+     */
+    public void forEach(BodyVisitor visitor);
+    /**
+     * Returns the number of bodies currently stored, stars included.
+     *
+     * @return the number of bodies
+     */
+    public int size();
+}
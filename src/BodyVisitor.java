@@ -0,0 +1,15 @@
+/**
+ * Receives the bodies of a {@link BodyStore} one at a time through
+ * {@link BodyStore#forEach(BodyVisitor)}, without needing a {@link Body} object for each.
+ */
+public interface BodyVisitor {
+    /**
+     * Called once for each body.
+     *
+     * @param x         the x-coordinate of the body's top-left corner
+     * @param y         the y-coordinate of the body's top-left corner
+     * @param body_size the diameter of the body
+     * @param type      {@link Body#MOTION} or {@link Body#STAR}
+     */
+    public void visit(double x, double y, int body_size, byte type);
+}
@@ -0,0 +1,192 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+/**
+ * Draws a {@link Frame} into a reusable offscreen image and blits it to the screen.
+ * <p>
+ * Bodies are first sorted into one bucket per type (and therefore per colour) in a single
+ * pass over the frame. Each bucket is then drawn in turn by copying a pre-rendered sprite of
+ * the right colour and size, instead of setting the colour and rasterising an oval for
+ * every body. Stars are drawn before moving bodies, as with direct painting.
+ * <p>
+ * The offscreen image and sprites are compatible with the screen, so Java2D can keep them
+ * in video memory; the frame image is only recreated when the panel is resized.
+ * <p>
+ * The offscreen image is kept between frames, and a {@link DirtyRegion} works out which
+ * tiles of it changed; only those are cleared and redrawn, and only with the bodies that
+ * overlap them. {@link #render} reports the changed rectangles so the panel can copy just
+ * those to the screen.
+ */
+public class BufferedRenderer implements BodyVisitor {
+    /** Number of body types; type tags are used as bucket indices. */
+    private static final int TYPES = 2;
+    /** Order in which the buckets are drawn. */
+    private static final byte[] DRAW_ORDER = {Body.STAR, Body.MOTION};
+
+    /** The offscreen frame, or {@code null} before the first paint. */
+    private BufferedImage frame;
+    /** The graphics configuration the frame and sprites were created for. */
+    private GraphicsConfiguration config;
+    /** Pre-rendered sprite per type and size, created on first use. */
+    private BufferedImage[][] sprites = new BufferedImage[TYPES][0];
+    /** Bucketed x-coordinates, per type. */
+    private int[][] bucketX = new int[TYPES][16];
+    /** Bucketed y-coordinates, per type. */
+    private int[][] bucketY = new int[TYPES][16];
+    /** Bucketed sizes, per type. */
+    private int[][] bucketSize = new int[TYPES][16];
+    /** Number of bodies in each bucket. */
+    private int[] bucketCount = new int[TYPES];
+    /** The parts of the offscreen frame that changed in the last {@link #render}. */
+    private final DirtyRegion dirty = new DirtyRegion();
+    /** The colour the offscreen frame was last cleared with. */
+    private Color cleared;
+    /**
+     * Brings the offscreen frame up to date with {@code bodies} and copies it onto {@code g}.
+     *
+     * @param g          the graphics context of the panel
+     * @param bodies     the snapshot to draw
+     * @param width      the width of the panel
+     * @param height     the height of the panel
+     * @param background the colour to clear the frame with
+     */
+    public void paint(Graphics g, Frame bodies, int width, int height, Color background){
+        if (width <= 0 || height <= 0){
+            return;
+        }
+        render(bodies, ((Graphics2D) g).getDeviceConfiguration(), width, height, background);
+        g.drawImage(frame, 0, 0, null);
+    }
+    /**
+     * Redraws the parts of the offscreen frame that differ from the last snapshot rendered,
+     * without copying anything to the screen. The whole frame is redrawn after a resize or a
+     * change of graphics configuration or background.
+     *
+     * @param bodies     the snapshot to draw
+     * @param gc         the graphics configuration of the panel
+     * @param width      the width of the panel
+     * @param height     the height of the panel
+     * @param background the colour to clear the frame with
+     * @return the rectangles that were redrawn; valid until the next call
+     */
+    public DirtyRegion render(Frame bodies, GraphicsConfiguration gc, int width, int height, Color background){
+        // the panel and Swing's back buffer may hand over different configurations of one screen
+        if (config == null || gc.getDevice() != config.getDevice()){
+            config = gc;
+            frame = null;
+            sprites = new BufferedImage[TYPES][0];
+        }
+        if (frame == null || frame.getWidth() != width || frame.getHeight() != height){
+            frame = config.createCompatibleImage(width, height);
+            dirty.invalidate();
+        }
+        if (!background.equals(cleared)){
+            cleared = background;
+            dirty.invalidate();
+        }
+
+        Arrays.fill(bucketCount, 0);
+        dirty.begin(width, height);
+        bodies.forEach(this);
+        dirty.finish();
+
+        Graphics2D og = frame.createGraphics();
+        og.setColor(background);
+        for (int r = 0; r < dirty.count; r++){
+            int rx = dirty.x[r];
+            int ry = dirty.y[r];
+            int rw = dirty.w[r];
+            int rh = dirty.h[r];
+            og.setClip(rx, ry, rw, rh);
+            og.fillRect(rx, ry, rw, rh);
+            for (byte type : DRAW_ORDER){
+                int[] xs = bucketX[type];
+                int[] ys = bucketY[type];
+                int[] sizes = bucketSize[type];
+                for (int i = 0; i < bucketCount[type]; i++){
+                    int bx = xs[i];
+                    int by = ys[i];
+                    int side = sizes[i];
+                    if (bx < rx + rw && by < ry + rh && bx + side > rx && by + side > ry){
+                        og.drawImage(sprite(type, side), bx, by, null);
+                    }
+                }
+            }
+        }
+        og.dispose();
+        return dirty;
+    }
+    /**
+     * Returns whether the offscreen frame can be copied to a panel of the given size and
+     * background as it is, without rendering first.
+     *
+     * @param width      the width of the panel
+     * @param height     the height of the panel
+     * @param background the colour the panel clears with
+     * @return {@code true} if a frame of that size has been rendered on that background
+     */
+    public boolean isCurrent(int width, int height, Color background){
+        return frame != null && frame.getWidth() == width && frame.getHeight() == height
+                && background.equals(cleared);
+    }
+    /**
+     * Returns the offscreen frame drawn by the last {@link #paint}.
+     *
+     * @return the frame image, or {@code null} before the first paint
+     */
+    public BufferedImage getImage(){
+        return frame;
+    }
+    /**
+     * Adds one body to the bucket of its type and to the tiles it covers.
+     *
+     * @param x         the x-coordinate of the body's top-left corner
+     * @param y         the y-coordinate of the body's top-left corner
+     * @param body_size the diameter of the body
+     * @param type      {@link Body#MOTION} or {@link Body#STAR}
+     */
+    public void visit(double x, double y, int body_size, byte type){
+        int n = bucketCount[type];
+        if (n == bucketX[type].length){
+            int capacity = n * 2;
+            bucketX[type] = Arrays.copyOf(bucketX[type], capacity);
+            bucketY[type] = Arrays.copyOf(bucketY[type], capacity);
+            bucketSize[type] = Arrays.copyOf(bucketSize[type], capacity);
+        }
+        bucketX[type][n] = (int) x;
+        bucketY[type][n] = (int) y;
+        bucketSize[type][n] = body_size;
+        bucketCount[type] = n + 1;
+        dirty.add((int) x, (int) y, body_size, type);
+    }
+    /**
+     * Returns the sprite for a body of the given type and size, rendering it on first use.
+     */
+    private BufferedImage sprite(byte type, int body_size){
+        BufferedImage[] bySize = sprites[type];
+        if (body_size >= bySize.length){
+            bySize = Arrays.copyOf(bySize, body_size + 1);
+            sprites[type] = bySize;
+        }
+        BufferedImage sprite = bySize[body_size];
+        if (sprite == null){
+            int side = Math.max(body_size, 1);
+            sprite = config.createCompatibleImage(side, side, Transparency.BITMASK);
+            Graphics2D sg = sprite.createGraphics();
+            sg.setColor(colorOf(type));
+            sg.fillOval(0, 0, body_size, body_size);
+            sg.dispose();
+            bySize[body_size] = sprite;
+        }
+        return sprite;
+    }
+    /**
+     * Returns the colour bodies of the given type are drawn in.
+     *
+     * @param type {@link Body#MOTION} or {@link Body#STAR}
+     * @return red for stars, black for moving bodies
+     */
+    public static Color colorOf(byte type){
+        return type == Body.STAR ? Color.RED : Color.BLACK;
+    }
+}
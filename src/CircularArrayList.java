@@ -0,0 +1,219 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+/**
+ * A generic list backed by a circular array (ring buffer).
+ * <p>
+ * The elements occupy {@code size} consecutive slots starting at {@code head}, wrapping
+ * around the end of the array. Because the front can move as well as the back, adding or
+ * removing at either end is O(1), and an insertion or removal in the middle only shifts
+ * the elements on whichever side of it is shorter. The capacity is always a power of two,
+ * so a logical index is turned into a slot with a mask instead of a division.
+ *
+ * @param <T> the type of elements stored in the list
+ */
+public class CircularArrayList<T> implements List<T>{
+    /** The underlying ring of slots; its length is always a power of two. */
+    private T[] array;
+    /** The slot holding element 0. */
+    private int head;
+    /** The number of elements currently stored. */
+    private int size;
+    /** {@code array.length - 1}, for turning indices into slots. */
+    private int mask;
+    /**
+     * Constructs an empty list with an initial capacity of 16.
+     */
+    @SuppressWarnings("unchecked")
+    public CircularArrayList(){
+        array = (T[]) new Object[16];
+        mask = array.length - 1;
+        head = 0;
+        size = 0;
+    }
+    /**
+     * Retrieves the element at the specified index.
+     *
+     * @param index the index of the element to retrieve
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size)
+     */
+    public T get(int index){
+        if (index < 0 || index >= size){
+            throw new IndexOutOfBoundsException();
+        }
+        return array[(head + index) & mask];
+    }
+    /**
+     * Returns the number of elements currently in the list.
+     *
+     * @return the number of elements in the list
+     */
+    public int size(){
+        return size;
+    }
+    /**
+     * Inserts an element at the specified index, shifting the elements before it one slot
+     * towards the front or the elements after it one slot towards the back, whichever are fewer.
+     *
+     * @param index   the position to insert the element at
+     * @param element the element to insert
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size)
+     */
+    public void add(int index, T element){
+        if (index < 0 || index > size){
+            throw new IndexOutOfBoundsException();
+        }
+        if (size == array.length){
+            grow();
+        }
+        if (index < size / 2){
+            head = (head - 1) & mask;
+            for (int i = 0; i < index; i++){
+                array[(head + i) & mask] = array[(head + i + 1) & mask];
+            }
+        }
+        else{
+            for (int i = size; i > index; i--){
+                array[(head + i) & mask] = array[(head + i - 1) & mask];
+            }
+        }
+        array[(head + index) & mask] = element;
+        size++;
+    }
+    /**
+     * Appends an element to the end of the list.
+     *
+     * @param element the element to add
+     * @return {@code true} if the element was successfully added
+     */
+    public boolean add(T element){
+        if (size == array.length){
+            grow();
+        }
+        array[(head + size) & mask] = element;
+        size++;
+        return true;
+    }
+    /**
+     * Removes the element at the specified index, closing the gap from whichever side
+     * has fewer elements to shift.
+     *
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size)
+     */
+    public T remove(int index){
+        if (index < 0 || index >= size){
+            throw new IndexOutOfBoundsException();
+        }
+        T temp = array[(head + index) & mask];
+        if (index < size / 2){
+            for (int i = index; i > 0; i--){
+                array[(head + i) & mask] = array[(head + i - 1) & mask];
+            }
+            array[head] = null;
+            head = (head + 1) & mask;
+        }
+        else{
+            for (int i = index; i < size - 1; i++){
+                array[(head + i) & mask] = array[(head + i + 1) & mask];
+            }
+            array[(head + size - 1) & mask] = null;
+        }
+        size--;
+        return temp;
+    }
+    /**
+     * Removes every element that satisfies the given predicate.
+     * <p>
+     * Survivors are compacted towards the head in one sweep around the ring.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     */
+    public boolean removeIf(Predicate<? super T> filter){
+        int kept = 0;
+        for (int i = 0; i < size; i++){
+            T element = array[(head + i) & mask];
+            if (!filter.test(element)){
+                array[(head + kept) & mask] = element;
+                kept++;
+            }
+        }
+        for (int i = kept; i < size; i++){
+            array[(head + i) & mask] = null;
+        }
+        boolean removed = kept != size;
+        size = kept;
+        return removed;
+    }
+    /**
+     * Doubles the capacity, unwrapping the elements so the head is at slot 0.
+     * Emits a {@link ListResizeEvent} when JFR events are enabled.
+     */
+    @SuppressWarnings("unchecked")
+    private void grow(){
+        ListResizeEvent event = SimulationEvents.enabled ? new ListResizeEvent() : null;
+        if (event != null){
+            event.begin();
+        }
+        T[] newArray = (T[]) new Object[array.length * 2];
+        int front = Math.min(size, array.length - head);
+        System.arraycopy(array, head, newArray, 0, front);
+        System.arraycopy(array, 0, newArray, front, size - front);
+        if (event != null){
+            event.bodyCount = size;
+            event.list = "ring";
+            event.oldCapacity = array.length;
+            event.newCapacity = newArray.length;
+            event.allocated = 16L + 4L * newArray.length;
+            event.commit();
+        }
+        array = newArray;
+        mask = array.length - 1;
+        head = 0;
+    }
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public Iterator<T> iterator(){
+        return new CircularArrayListIterator();
+    }
+    /**
+     * Iterator that walks the ring by logical index.
+     * <p>
+     * Removing through the iterator closes the gap from the shorter side; either way the
+     * following elements keep their order, so stepping the cursor back skips nothing.
+     */
+    private class CircularArrayListIterator implements Iterator<T> {
+        /** Index of the next element to return. */
+        private int cursor = 0;
+        /** Index of the element last returned by {@code next()}, or -1 if there is none. */
+        private int lastReturned = -1;
+
+        public boolean hasNext(){
+            return cursor < size;
+        }
+
+        public T next(){
+            if (cursor >= size){
+                throw new NoSuchElementException();
+            }
+            lastReturned = cursor;
+            cursor++;
+            return array[(head + lastReturned) & mask];
+        }
+
+        public void remove(){
+            if (lastReturned < 0){
+                throw new IllegalStateException();
+            }
+            CircularArrayList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+        }
+    }
+}
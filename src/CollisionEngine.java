@@ -0,0 +1,152 @@
+import java.util.Arrays;
+/**
+ * Detects overlapping bodies and resolves them: a body touching a {@link Star} is absorbed
+ * into it, and, if merging is on, two touching bodies combine into one.
+ * <p>
+ * Bodies are treated as discs around their centres. Every tick the moving bodies are
+ * inserted into a {@link SpatialHashGrid} whose cells are as wide as the largest body, so
+ * two bodies can only touch if they sit in the same or neighbouring cells. Each body then
+ * checks the 3x3 block around its own cell, and each star checks the block its radius
+ * covers, which keeps the whole pass near-linear instead of testing every pair.
+ * <p>
+ * Absorption and merging conserve mass and momentum. A merged body keeps the combined
+ * area of the two discs and sits at their centre of mass; because it can grow past the cell
+ * size mid-pass, a few overlaps involving it may only be resolved on the next tick.
+ */
+public class CollisionEngine {
+    /** Whether two moving bodies that touch merge into one. */
+    protected boolean merge_bodies;
+    /** The smallest cell size, normally the configured body size. */
+    protected double min_cell;
+    /** The grid rebuilt every tick. */
+    protected SpatialHashGrid grid = new SpatialHashGrid();
+    /** Centre x-coordinate of every body. */
+    protected double[] cx = new double[16];
+    /** Centre y-coordinate of every body. */
+    protected double[] cy = new double[16];
+    /**
+     * Constructs a collision pass.
+     *
+     * @param body_size    the configured body diameter, used as the smallest cell size
+     * @param merge_bodies whether touching moving bodies merge
+     */
+    public CollisionEngine(int body_size, boolean merge_bodies){
+        this.min_cell = Math.max(body_size, 1);
+        this.merge_bodies = merge_bodies;
+    }
+    /**
+     * Resolves every collision among the bodies in the buffer, marking the absorbed ones dead.
+     *
+     * @param bodies the bodies to check
+     */
+    public void apply(BodyBuffer bodies){
+        int n = bodies.count;
+        if (n > cx.length){
+            cx = Arrays.copyOf(cx, Math.max(n, cx.length * 2));
+            cy = Arrays.copyOf(cy, cx.length);
+        }
+        int largest = 0;
+        for (int i = 0; i < n; i++){
+            double half = bodies.size[i] * 0.5;
+            cx[i] = bodies.x[i] + half;
+            cy[i] = bodies.y[i] + half;
+            if (bodies.type[i] == Body.MOTION && bodies.size[i] > largest){
+                largest = bodies.size[i];
+            }
+        }
+        grid.clear(n, Math.max(min_cell, largest));
+        for (int i = 0; i < n; i++){
+            if (bodies.type[i] == Body.MOTION){
+                grid.insert(i, cx[i], cy[i]);
+            }
+        }
+        for (int i = 0; i < n; i++){
+            if (bodies.type[i] == Body.STAR && !bodies.dead[i]){
+                absorb(bodies, i, largest * 0.5);
+            }
+        }
+        if (merge_bodies){
+            for (int i = 0; i < n; i++){
+                if (bodies.type[i] == Body.MOTION && !bodies.dead[i]){
+                    merge(bodies, i);
+                }
+            }
+        }
+    }
+    /**
+     * Absorbs every moving body that touches star {@code s}.
+     *
+     * @param bodies the bodies being checked
+     * @param s      the index of the star
+     * @param reach  the radius of the largest moving body
+     */
+    private void absorb(BodyBuffer bodies, int s, double reach){
+        double radius = bodies.size[s] * 0.5;
+        double extent = radius + reach;
+        int x0 = grid.cell(cx[s] - extent);
+        int x1 = grid.cell(cx[s] + extent);
+        int y0 = grid.cell(cy[s] - extent);
+        int y1 = grid.cell(cy[s] + extent);
+        for (int gy = y0; gy <= y1; gy++){
+            for (int gx = x0; gx <= x1; gx++){
+                for (int j = grid.first(gx, gy); j != SpatialHashGrid.END; j = grid.next(j)){
+                    if (!bodies.dead[j] && touching(bodies, s, j)){
+                        combine(bodies, s, j);
+                    }
+                }
+            }
+        }
+    }
+    /**
+     * Merges every later moving body that touches body {@code i} into it.
+     *
+     * @param bodies the bodies being checked
+     * @param i      the index of the surviving body
+     */
+    private void merge(BodyBuffer bodies, int i){
+        int gx = grid.cell(cx[i]);
+        int gy = grid.cell(cy[i]);
+        for (int y = gy - 1; y <= gy + 1; y++){
+            for (int x = gx - 1; x <= gx + 1; x++){
+                for (int j = grid.first(x, y); j != SpatialHashGrid.END; j = grid.next(j)){
+                    if (j > i && !bodies.dead[j] && touching(bodies, i, j)){
+                        combine(bodies, i, j);
+                        double area = (double) bodies.size[i] * bodies.size[i] + (double) bodies.size[j] * bodies.size[j];
+                        bodies.size[i] = (int) Math.round(Math.sqrt(area));
+                        double half = bodies.size[i] * 0.5;
+                        bodies.x[i] = cx[i] - half;
+                        bodies.y[i] = cy[i] - half;
+                    }
+                }
+            }
+        }
+    }
+    /**
+     * Returns whether the discs of bodies {@code i} and {@code j} overlap.
+     */
+    private boolean touching(BodyBuffer bodies, int i, int j){
+        double dx = cx[j] - cx[i];
+        double dy = cy[j] - cy[i];
+        double reach = (bodies.size[i] + bodies.size[j]) * 0.5;
+        return dx * dx + dy * dy < reach * reach;
+    }
+    /**
+     * Moves the mass and momentum of body {@code j} into body {@code i} and marks {@code j} dead.
+     * A moving body's centre moves to the centre of mass; a star's stays put.
+     */
+    private void combine(BodyBuffer bodies, int i, int j){
+        double mi = bodies.mass[i];
+        double mj = bodies.mass[j];
+        double total = mi + mj;
+        if (total > 0){
+            bodies.vx[i] = (bodies.vx[i] * mi + bodies.vx[j] * mj) / total;
+            bodies.vy[i] = (bodies.vy[i] * mi + bodies.vy[j] * mj) / total;
+            if (bodies.type[i] == Body.MOTION){
+                cx[i] = (cx[i] * mi + cx[j] * mj) / total;
+                cy[i] = (cy[i] * mi + cy[j] * mj) / total;
+            }
+        }
+        bodies.mass[i] = total;
+        bodies.kill(j);
+    }
+}
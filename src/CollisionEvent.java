@@ -0,0 +1,11 @@
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+/**
+ * JFR event spanning the collision pass of one tick.
+ */
+@Name("massivemotion.Collision")
+@Label("Collision")
+@Description("Collision pass over the body buffer")
+public class CollisionEvent extends PhaseEvent {
+}
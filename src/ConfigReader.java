@@ -1,5 +1,6 @@
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Properties;
 /**
  * The {@code ConfigReader} class is responsible for reading configuration values
@@ -26,6 +27,15 @@ public class ConfigReader {
             System.err.println("Couldn't read the file: "+ e.getMessage());
         }
     }
+    /**
+     * Constructs a {@code ConfigReader} over properties that are already loaded,
+     * for callers such as benchmarks that build their configuration in code.
+     *
+     * @param prop the configuration properties
+     */
+    public ConfigReader(Properties prop){
+        this.prop = prop;
+    }
     /**
      * Retrieves a property value as a {@code String}.
      *
@@ -53,4 +63,128 @@ public class ConfigReader {
     public int getInt(String key){
         return Integer.parseInt(prop.getProperty(key));
     }
+    /**
+     * Retrieves a property value as a {@code String}, falling back to a default
+     * when the key is not present.
+     *
+     * @param key          the property key
+     * @param defaultValue the value to return if the key is missing
+     * @return the value associated with the key, or {@code defaultValue}
+     */
+    public String get(String key, String defaultValue){
+        return prop.getProperty(key, defaultValue);
+    }
+    /**
+     * Retrieves a property value as a {@code double}, falling back to a default
+     * when the key is not present.
+     *
+     * @param key          the property key
+     * @param defaultValue the value to return if the key is missing
+     * @return the parsed double value, or {@code defaultValue}
+     */
+    public double getDouble(String key, double defaultValue){
+        String value = prop.getProperty(key);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+    /**
+     * Retrieves a property value as an {@code int}, falling back to a default
+     * when the key is not present.
+     *
+     * @param key          the property key
+     * @param defaultValue the value to return if the key is missing
+     * @return the parsed integer value, or {@code defaultValue}
+     */
+    public int getInt(String key, int defaultValue){
+        String value = prop.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+    /**
+     * Retrieves a comma-separated property value as an array of {@code int}s.
+     *
+     * @param key the property key
+     * @return the parsed values, in order
+     */
+    public int[] getInts(String key){
+        String[] parts = prop.getProperty(key).split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++){
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+    /**
+     * Retrieves a comma-separated property value as {@code n} {@code int}s, where a
+     * single value is used for all {@code n}.
+     *
+     * @param key the property key
+     * @param n   the number of values wanted
+     * @return the {@code n} values
+     * @throws IllegalArgumentException if the key lists neither one nor {@code n} values
+     */
+    public int[] getInts(String key, int n){
+        int[] values = getInts(key);
+        if (values.length == n){
+            return values;
+        }
+        if (values.length != 1){
+            throw new IllegalArgumentException(key + " lists " + values.length + " values, expected 1 or " + n);
+        }
+        int[] repeated = new int[n];
+        Arrays.fill(repeated, values[0]);
+        return repeated;
+    }
+    /**
+     * Retrieves a comma-separated property value as an array of {@code double}s.
+     *
+     * @param key the property key
+     * @return the parsed values, in order
+     */
+    public double[] getDoubles(String key){
+        String[] parts = prop.getProperty(key).split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++){
+            values[i] = Double.parseDouble(parts[i].trim());
+        }
+        return values;
+    }
+    /**
+     * Retrieves a comma-separated property value as {@code n} {@code double}s, where a
+     * single value is used for all {@code n}.
+     *
+     * @param key the property key
+     * @param n   the number of values wanted
+     * @return the {@code n} values
+     * @throws IllegalArgumentException if the key lists neither one nor {@code n} values
+     */
+    public double[] getDoubles(String key, int n){
+        double[] values = getDoubles(key);
+        if (values.length == n){
+            return values;
+        }
+        if (values.length != 1){
+            throw new IllegalArgumentException(key + " lists " + values.length + " values, expected 1 or " + n);
+        }
+        double[] repeated = new double[n];
+        Arrays.fill(repeated, values[0]);
+        return repeated;
+    }
+    /**
+     * Retrieves a comma-separated property value as {@code n} {@code double}s like
+     * {@link #getDoubles(String, int)}, falling back to {@code n} copies of a default
+     * when the key is not present.
+     *
+     * @param key          the property key
+     * @param n            the number of values wanted
+     * @param defaultValue the value to use if the key is missing
+     * @return the {@code n} values
+     * @throws IllegalArgumentException if the key lists neither one nor {@code n} values
+     */
+    public double[] getDoubles(String key, int n, double defaultValue){
+        if (prop.getProperty(key) == null){
+            double[] values = new double[n];
+            Arrays.fill(values, defaultValue);
+            return values;
+        }
+        return getDoubles(key, n);
+    }
 }
@@ -0,0 +1,50 @@
+/**
+ * Exact all-pairs gravity.
+ * <p>
+ * Every pair of bodies is visited once and both bodies are kicked, so a tick costs
+ * O(n^2). It is meant for small populations and for checking the accuracy of
+ * {@link BarnesHutGravity}, not for large runs.
+ */
+public class DirectGravity extends GravityEngine {
+    /**
+     * Constructs an all-pairs engine.
+     *
+     * @param distance_scale metres represented by one pixel
+     * @param time_scale     seconds represented by one tick
+     * @param softening      softening length, in pixels
+     */
+    public DirectGravity(double distance_scale, double time_scale, double softening){
+        super(distance_scale, time_scale, softening);
+    }
+    /**
+     * Kicks every body by the exact pull of every other body.
+     *
+     * @param bodies the bodies to update
+     */
+    public void apply(BodyBuffer bodies){
+        centres(bodies);
+        int n = bodies.count;
+        double[] mass = bodies.mass;
+        double[] vx = bodies.vx;
+        double[] vy = bodies.vy;
+        for (int i = 0; i < n; i++){
+            double xi = cx[i];
+            double yi = cy[i];
+            double mi = mass[i];
+            double axi = 0;
+            double ayi = 0;
+            for (int j = i + 1; j < n; j++){
+                double dx = cx[j] - xi;
+                double dy = cy[j] - yi;
+                double d2 = dx * dx + dy * dy + softening2;
+                double inv = strength / (d2 * Math.sqrt(d2));
+                axi += dx * inv * mass[j];
+                ayi += dy * inv * mass[j];
+                vx[j] -= dx * inv * mi;
+                vy[j] -= dy * inv * mi;
+            }
+            vx[i] += axi;
+            vy[i] += ayi;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+import java.util.Arrays;
+/**
+ * Works out which parts of the panel changed between two frames, as a few rectangles.
+ * <p>
+ * The panel is divided into square tiles of {@value #TILE} pixels. While a frame is fed in
+ * through {@link #add(int, int, int, byte)}, every tile a body's box overlaps adds a hash
+ * of that body to its running total. Addition doesn't depend on order, so a tile's total
+ * only changes when a body in it moved, appeared, disappeared or changed size, whichever
+ * order the store handed them over in. {@link #finish()} marks the tiles whose total
+ * differs from the previous frame's, joins horizontal runs of them into rectangles, stacks
+ * runs with the same columns on consecutive rows, and once there are {@value #MAX_RECTS}
+ * rectangles folds each further run into whichever rectangle grows the least by covering it.
+ */
+public class DirtyRegion {
+    /** Side of one tile, in pixels. */
+    public static final int TILE = 32;
+    /** Most rectangles reported; further dirty runs are folded into one of them. */
+    public static final int MAX_RECTS = 16;
+
+    /** Width of the area covered, in pixels. */
+    private int width;
+    /** Height of the area covered, in pixels. */
+    private int height;
+    /** Number of tile columns. */
+    private int cols;
+    /** Number of tile rows. */
+    private int rows;
+    /** Per-tile body hash totals of the previous frame. */
+    private long[] previous = new long[0];
+    /** Per-tile body hash totals of the frame being fed in. */
+    private long[] current = new long[0];
+    /** Whether the next {@link #finish()} reports the whole area regardless of the tiles. */
+    private boolean invalid = true;
+    /** Left edge of each dirty rectangle. */
+    public int[] x = new int[MAX_RECTS];
+    /** Top edge of each dirty rectangle. */
+    public int[] y = new int[MAX_RECTS];
+    /** Width of each dirty rectangle. */
+    public int[] w = new int[MAX_RECTS];
+    /** Height of each dirty rectangle. */
+    public int[] h = new int[MAX_RECTS];
+    /** Number of dirty rectangles found by the last {@link #finish()}. */
+    public int count;
+    /**
+     * Starts feeding in a frame for an area of the given size. If the size changed, or
+     * {@link #invalidate()} was called, the whole area is reported dirty.
+     *
+     * @param width  the width of the area, in pixels
+     * @param height the height of the area, in pixels
+     */
+    public void begin(int width, int height){
+        if (width != this.width || height != this.height){
+            this.width = width;
+            this.height = height;
+            this.cols = (width + TILE - 1) / TILE;
+            this.rows = (height + TILE - 1) / TILE;
+            this.previous = new long[cols * rows];
+            this.current = new long[cols * rows];
+            this.invalid = true;
+        }
+        Arrays.fill(current, 0);
+    }
+    /**
+     * Reports the whole area dirty at the next {@link #finish()}, e.g. because the background changed.
+     */
+    public void invalidate(){
+        invalid = true;
+    }
+    /**
+     * Adds one body of the frame to every tile its box overlaps.
+     *
+     * @param bx        the x-coordinate of the body's top-left corner
+     * @param by        the y-coordinate of the body's top-left corner
+     * @param body_size the diameter of the body
+     * @param type      {@link Body#MOTION} or {@link Body#STAR}
+     */
+    public void add(int bx, int by, int body_size, byte type){
+        int side = Math.max(body_size, 1);
+        if (bx >= width || by >= height || bx + side <= 0 || by + side <= 0){
+            return;
+        }
+        int c0 = Math.max(bx, 0) / TILE;
+        int c1 = Math.min(bx + side - 1, width - 1) / TILE;
+        int r0 = Math.max(by, 0) / TILE;
+        int r1 = Math.min(by + side - 1, height - 1) / TILE;
+        long hash = mix(((long) bx << 32) ^ (by & 0xFFFFFFFFL) ^ ((long) body_size << 48) ^ ((long) type << 56));
+        for (int r = r0; r <= r1; r++){
+            int row = r * cols;
+            for (int c = c0; c <= c1; c++){
+                current[row + c] += hash;
+            }
+        }
+    }
+    /**
+     * Compares the frame fed in since {@link #begin(int, int)} with the previous one and
+     * fills {@link #x}, {@link #y}, {@link #w}, {@link #h} and {@link #count} with the
+     * rectangles to redraw. The frame then becomes the previous one.
+     */
+    public void finish(){
+        count = 0;
+        if (invalid){
+            invalid = false;
+            report(0, 0, width, height);
+        }
+        else{
+            for (int r = 0; r < rows; r++){
+                int row = r * cols;
+                int top = r * TILE;
+                int c = 0;
+                while (c < cols){
+                    if (current[row + c] == previous[row + c]){
+                        c++;
+                        continue;
+                    }
+                    int start = c;
+                    while (c < cols && current[row + c] != previous[row + c]){
+                        c++;
+                    }
+                    int px = start * TILE;
+                    int pw = c * TILE - px;
+                    // grow a rectangle with the same columns that ends on the row above
+                    int k = 0;
+                    while (k < count && (x[k] != px || w[k] != pw || y[k] + h[k] != top)){
+                        k++;
+                    }
+                    if (k < count){
+                        h[k] += TILE;
+                    }
+                    else if (count == MAX_RECTS){
+                        cover(px, top, pw, TILE);
+                    }
+                    else{
+                        report(px, top, pw, TILE);
+                    }
+                }
+            }
+            clip();
+        }
+        long[] temp = previous;
+        previous = current;
+        current = temp;
+    }
+    /**
+     * Grows the rectangle whose area increases the least so that it also covers the given one.
+     */
+    private void cover(int rx, int ry, int rw, int rh){
+        int best = 0;
+        long bestGrowth = Long.MAX_VALUE;
+        for (int k = 0; k < count; k++){
+            long union = (long) (Math.max(x[k] + w[k], rx + rw) - Math.min(x[k], rx))
+                    * (Math.max(y[k] + h[k], ry + rh) - Math.min(y[k], ry));
+            long growth = union - (long) w[k] * h[k];
+            if (growth < bestGrowth){
+                best = k;
+                bestGrowth = growth;
+            }
+        }
+        int left = Math.min(x[best], rx);
+        int top = Math.min(y[best], ry);
+        w[best] = Math.max(x[best] + w[best], rx + rw) - left;
+        h[best] = Math.max(y[best] + h[best], ry + rh) - top;
+        x[best] = left;
+        y[best] = top;
+    }
+    /**
+     * Trims the rectangles of the last row and column of tiles to the edge of the area.
+     */
+    private void clip(){
+        for (int i = 0; i < count; i++){
+            w[i] = Math.min(w[i], width - x[i]);
+            h[i] = Math.min(h[i], height - y[i]);
+        }
+    }
+    /**
+     * Appends one rectangle.
+     */
+    private void report(int rx, int ry, int rw, int rh){
+        x[count] = rx;
+        y[count] = ry;
+        w[count] = rw;
+        h[count] = rh;
+        count++;
+    }
+    /**
+     * Scrambles the bits of a body key so the per-tile sums rarely collide.
+     */
+    private static long mix(long z){
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
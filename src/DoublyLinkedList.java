@@ -1,3 +1,6 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 /**
  * A generic implementation of a doubly linked list.
  * <p>
@@ -224,6 +227,38 @@ public class DoublyLinkedList<T> implements List<T>{
             return curr.getData();
         }
     }
+    /**
+     * Removes every element that satisfies the given predicate in a single walk
+     * of the list, unlinking matching nodes as they are found.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     */
+    public boolean removeIf(Predicate<? super T> filter){
+        int before = size;
+        dNode<T> curr = head;
+        while (curr != null){
+            dNode<T> next = curr.next();
+            if (filter.test(curr.getData())){
+                dNode<T> predecessor = curr.previous();
+                if (predecessor == null){
+                    head = next;
+                }
+                else{
+                    predecessor.setNext(next);
+                }
+                if (next == null){
+                    tail = predecessor;
+                }
+                else{
+                    next.setPrevious(predecessor);
+                }
+                size--;
+            }
+            curr = next;
+        }
+        return size != before;
+    }
     /**
      * Returns the number of elements in the list.
      *
@@ -232,4 +267,56 @@ public class DoublyLinkedList<T> implements List<T>{
     public int size(){
         return size;
     }
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public Iterator<T> iterator(){
+        return new DoublyLinkedListIterator();
+    }
+    /**
+     * Iterator that unlinks the last returned node through its {@code previous}
+     * and {@code next} references in constant time.
+     */
+    private class DoublyLinkedListIterator implements Iterator<T> {
+        /** Node last returned by {@code next()}, or {@code null} if there is none. */
+        private dNode<T> lastReturned = null;
+        /** Node that will be returned by the next call to {@code next()}. */
+        private dNode<T> next = head;
+
+        public boolean hasNext(){
+            return next != null;
+        }
+
+        public T next(){
+            if (next == null){
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = next.next();
+            return lastReturned.getData();
+        }
+
+        public void remove(){
+            if (lastReturned == null){
+                throw new IllegalStateException();
+            }
+            dNode<T> predecessor = lastReturned.previous();
+            if (predecessor == null){
+                head = next;
+            }
+            else{
+                predecessor.setNext(next);
+            }
+            if (next == null){
+                tail = predecessor;
+            }
+            else{
+                next.setPrevious(predecessor);
+            }
+            lastReturned = null;
+            size--;
+        }
+    }
 }
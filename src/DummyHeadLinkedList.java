@@ -1,3 +1,6 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 /**
  * A singly linked list implementation that uses a dummy head node to simplify list operations.
  * @param <T> the type of elements stored in the list
@@ -97,12 +100,13 @@ public class DummyHeadLinkedList<T>  implements List<T> {
             tail = tail.next();
         }
         else {
-            Node <T> curr = head;
-            for (int i = 1; i < index; i++){
+            Node <T> curr = dummy;
+            for (int i = 0; i < index; i++){
                 curr = curr.next();
             }
+            node.setNext(curr.next());
             curr.setNext(node);
-            node.setNext(curr.next().next());
+            head = dummy.next();
         }
         size++;
     }
@@ -157,6 +161,9 @@ public class DummyHeadLinkedList<T>  implements List<T> {
             Node<T> temp = head;
             head = head.next();
             dummy.setNext(head);
+            if (head == null){
+                tail = null;
+            }
             size--;
             return temp.getData();
         }
@@ -174,6 +181,32 @@ public class DummyHeadLinkedList<T>  implements List<T> {
             return temp.getData();
         }
     }
+    /**
+     * Removes every element that satisfies the given predicate in a single walk
+     * of the list. Walking from the dummy node means the head needs no special case.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     */
+    public boolean removeIf(Predicate<? super T> filter){
+        int before = size;
+        Node<T> previous = dummy;
+        Node<T> curr = dummy.next();
+        while (curr != null){
+            Node<T> next = curr.next();
+            if (filter.test(curr.getData())){
+                previous.setNext(next);
+                size--;
+            }
+            else{
+                previous = curr;
+            }
+            curr = next;
+        }
+        head = dummy.next();
+        tail = (previous == dummy) ? null : previous;
+        return size != before;
+    }
     /**
      * Returns the number of elements in the list.
      *
@@ -182,4 +215,53 @@ public class DummyHeadLinkedList<T>  implements List<T> {
     public int size(){
         return size;
     }
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public Iterator<T> iterator(){
+        return new DummyHeadIterator();
+    }
+    /**
+     * Iterator that starts from the dummy node, so the node before the last
+     * returned one always exists and {@code remove()} never special-cases the head.
+     */
+    private class DummyHeadIterator implements Iterator<T> {
+        /** Node before {@code lastReturned}; the dummy node when it is the head. */
+        private Node<T> previous = dummy;
+        /** Node last returned by {@code next()}, or {@code null} if there is none. */
+        private Node<T> lastReturned = null;
+        /** Node that will be returned by the next call to {@code next()}. */
+        private Node<T> next = head;
+
+        public boolean hasNext(){
+            return next != null;
+        }
+
+        public T next(){
+            if (next == null){
+                throw new NoSuchElementException();
+            }
+            if (lastReturned != null){
+                previous = lastReturned;
+            }
+            lastReturned = next;
+            next = next.next();
+            return lastReturned.getData();
+        }
+
+        public void remove(){
+            if (lastReturned == null){
+                throw new IllegalStateException();
+            }
+            previous.setNext(next);
+            head = dummy.next();
+            if (lastReturned == tail){
+                tail = (previous == dummy) ? null : previous;
+            }
+            lastReturned = null;
+            size--;
+        }
+    }
 }
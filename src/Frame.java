@@ -0,0 +1,86 @@
+import java.awt.*;
+import java.util.Arrays;
+/**
+ * A snapshot of every body at the end of one tick: just what is needed to draw it.
+ * <p>
+ * The simulation thread fills a frame through {@link BodyStore#forEach(BodyVisitor)} and
+ * hands it over to the Swing thread, which only ever draws frames and never touches the
+ * live body store. The arrays only grow, so a frame reused across ticks stops allocating.
+ */
+public class Frame implements BodyVisitor {
+    /** The x-coordinate of each body's top-left corner. */
+    public int[] x = new int[16];
+    /** The y-coordinate of each body's top-left corner. */
+    public int[] y = new int[16];
+    /** The diameter of each body. */
+    public int[] size = new int[16];
+    /** The type of each body, {@link Body#MOTION} or {@link Body#STAR}. */
+    public byte[] type = new byte[16];
+    /** The number of bodies in the frame. */
+    public int count;
+    /** The simulation tick this frame was taken after. */
+    public long tick;
+    /**
+     * Empties the frame so it can be filled again.
+     *
+     * @param tick the tick the new contents belong to
+     */
+    public void clear(long tick){
+        this.count = 0;
+        this.tick = tick;
+    }
+    /**
+     * Makes sure the frame can hold {@code n} bodies without growing.
+     *
+     * @param n the number of bodies about to be stored
+     */
+    public void reserve(int n){
+        if (n > x.length){
+            int capacity = Math.max(n, x.length * 2);
+            this.x = Arrays.copyOf(this.x, capacity);
+            this.y = Arrays.copyOf(this.y, capacity);
+            this.size = Arrays.copyOf(this.size, capacity);
+            this.type = Arrays.copyOf(this.type, capacity);
+        }
+    }
+    /**
+     * Appends one body to the frame.
+     *
+     * @param x         the x-coordinate of the body's top-left corner
+     * @param y         the y-coordinate of the body's top-left corner
+     * @param body_size the diameter of the body
+     * @param type      {@link Body#MOTION} or {@link Body#STAR}
+     */
+    public void visit(double x, double y, int body_size, byte type){
+        if (count == this.x.length){
+            reserve(count + 1);
+        }
+        this.x[count] = (int) x;
+        this.y[count] = (int) y;
+        this.size[count] = body_size;
+        this.type[count] = type;
+        count++;
+    }
+    /**
+     * Hands every body in the frame to the visitor, in order.
+     *
+     * @param visitor the visitor to call for each body
+     */
+    public void forEach(BodyVisitor visitor){
+        for (int i = 0; i < count; i++){
+            visitor.visit(x[i], y[i], size[i], type[i]);
+        }
+    }
+    /**
+     * Paints every body the way {@link Body#paintBody(Graphics)} would: setting its colour
+     * and filling an oval, one body at a time.
+     *
+     * @param g the graphics context to draw on
+     */
+    public void paint(Graphics g){
+        for (int i = 0; i < count; i++){
+            g.setColor(BufferedRenderer.colorOf(type[i]));
+            g.fillOval(x[i], y[i], size[i], size[i]);
+        }
+    }
+}
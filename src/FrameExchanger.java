@@ -0,0 +1,63 @@
+/**
+ * Triple buffer handing {@link Frame}s from the simulation thread to the Swing thread.
+ * <p>
+ * The simulation thread fills {@link #back()} and calls {@link #publish()}; the Swing
+ * thread calls {@link #latest()} when it paints. Each side owns its own frame, and only the
+ * swaps are synchronised, so neither side ever waits for the other to finish drawing or
+ * ticking. If several frames are published between two paints, only the newest is drawn
+ * and the others are dropped.
+ */
+public class FrameExchanger {
+    /** Frame being filled by the simulation thread. */
+    private Frame back = new Frame();
+    /** Most recently published frame not yet taken by the Swing thread. */
+    private Frame ready = new Frame();
+    /** Frame being drawn by the Swing thread. */
+    private Frame front = new Frame();
+    /** Whether {@link #ready} holds a frame newer than {@link #front}. */
+    private boolean fresh;
+    /** Number of published frames that were replaced before being drawn. */
+    private long dropped;
+    /**
+     * Returns the frame the simulation thread should fill next.
+     *
+     * @return the back frame; only the simulation thread may touch it
+     */
+    public Frame back(){
+        return back;
+    }
+    /**
+     * Publishes the back frame as the newest complete frame.
+     */
+    public synchronized void publish(){
+        if (fresh){
+            dropped++;
+        }
+        Frame temp = ready;
+        ready = back;
+        back = temp;
+        fresh = true;
+    }
+    /**
+     * Returns the newest published frame for drawing.
+     *
+     * @return the front frame; only the Swing thread may touch it
+     */
+    public synchronized Frame latest(){
+        if (fresh){
+            Frame temp = front;
+            front = ready;
+            ready = temp;
+            fresh = false;
+        }
+        return front;
+    }
+    /**
+     * Returns how many published frames were never drawn because a newer one replaced them.
+     *
+     * @return the dropped frame count
+     */
+    public synchronized long getDropped(){
+        return dropped;
+    }
+}
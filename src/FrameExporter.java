@@ -0,0 +1,276 @@
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Writes rendered frames to disk as a numbered PNG sequence or as raw RGB frames, off the
+ * Swing thread.
+ * <p>
+ * {@link #submit(BufferedImage)} copies the pixels of a rendered frame into a pooled
+ * buffer and puts it on a bounded queue; background encoder threads take buffers off the
+ * queue, write them out and return them to the pool. The pool holds one buffer per queue
+ * slot and per encoder, so it only runs dry when the queue is full and every encoder is
+ * busy. What happens then depends on the policy: {@code block} makes the painting thread
+ * wait for a free buffer, {@code drop} skips the frame and counts it. Either way the
+ * simulation thread is never involved, so exporting doesn't change the tick rate. Frames
+ * submitted after {@link #close()} are dropped under either policy.
+ * <p>
+ * Files are named {@code frame_000000.png} (or {@code .rgb}) in submission order. A raw frame
+ * is {@code width * height * 3} bytes of 8-bit red, green and blue, row by row, with no header.
+ */
+public class FrameExporter {
+    /** Export policy that waits for a free buffer when the encoders fall behind. */
+    public static final String BLOCK = "block";
+    /** Export policy that skips frames when the encoders fall behind. */
+    public static final String DROP = "drop";
+
+    /**
+     * The pixels of one submitted frame, reused once it has been written.
+     */
+    private static class ExportFrame {
+        /** Pixels as packed RGB, row by row; only the first {@code width * height} are used. */
+        private int[] pixels = new int[0];
+        /** Width of the frame, in pixels. */
+        private int width;
+        /** Height of the frame, in pixels. */
+        private int height;
+        /** Position of the frame in the exported sequence. */
+        private long index;
+    }
+
+    /** Buffer put on the queue to tell an encoder to finish. */
+    private static final ExportFrame STOP = new ExportFrame();
+
+    /** Directory the frames are written to. */
+    private final Path directory;
+    /** Whether frames are written as PNG rather than raw RGB. */
+    private final boolean png;
+    /** Whether {@link #submit(BufferedImage)} waits for a buffer instead of dropping the frame. */
+    private final boolean block;
+    /** Buffers not currently holding a frame. */
+    private final ArrayBlockingQueue<ExportFrame> free;
+    /** Frames waiting for an encoder. */
+    private final ArrayBlockingQueue<ExportFrame> queue;
+    /** The encoder threads. */
+    private final Thread[] encoders;
+    /** Number of frames accepted so far; the index of the next one. */
+    private long submitted;
+    /** Whether {@link #close()} has been called; later frames are dropped. */
+    private boolean closed;
+    /** Number of frames skipped because no buffer was free or the exporter was closed. */
+    private volatile long dropped;
+    /** Number of frames written to disk. */
+    private final AtomicLong written = new AtomicLong();
+    /** The first write that failed, or {@code null}; rethrown by {@link #close()}. */
+    private volatile IOException failure;
+    /**
+     * Creates the output directory and starts the encoder threads.
+     *
+     * @param directory  the directory to write the frames to; created if missing
+     * @param format     {@code png} or {@code raw}
+     * @param policy     {@value #BLOCK} or {@value #DROP}
+     * @param queue_size the number of frames that may wait for an encoder
+     * @param threads    the number of encoder threads
+     * @throws IOException              if the directory can't be created
+     * @throws IllegalArgumentException if the format or policy is unknown, or a size is below 1
+     */
+    public FrameExporter(Path directory, String format, String policy, int queue_size, int threads) throws IOException {
+        if (!format.equals("png") && !format.equals("raw")){
+            throw new IllegalArgumentException("Unknown export format: " + format);
+        }
+        if (!policy.equals(BLOCK) && !policy.equals(DROP)){
+            throw new IllegalArgumentException("Unknown export policy: " + policy);
+        }
+        if (queue_size < 1 || threads < 1){
+            throw new IllegalArgumentException("Export queue and thread count must be at least 1");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.png = format.equals("png");
+        this.block = policy.equals(BLOCK);
+        this.free = new ArrayBlockingQueue<>(queue_size + threads);
+        for (int i = 0; i < queue_size + threads; i++){
+            free.add(new ExportFrame());
+        }
+        // never holds more frames than the pool has buffers, so submit's add can't fail
+        this.queue = new ArrayBlockingQueue<>(queue_size + threads);
+        this.encoders = new Thread[threads];
+        for (int i = 0; i < threads; i++){
+            Thread encoder = new Thread(this::encode, "frame-encoder-" + i);
+            encoder.setDaemon(true);
+            encoder.setPriority(Thread.MIN_PRIORITY);
+            encoders[i] = encoder;
+            encoder.start();
+        }
+    }
+    /**
+     * Copies a rendered frame into a pooled buffer and queues it for writing. Called on the
+     * thread that rendered the image, which must not draw into it until this returns. Once
+     * {@link #close()} has been called the frame is dropped instead.
+     *
+     * @param image the rendered frame
+     * @return {@code true} if the frame was queued, {@code false} if it was dropped
+     */
+    public synchronized boolean submit(BufferedImage image){
+        ExportFrame frame = closed ? null : block ? take(free) : free.poll();
+        if (frame == null){
+            dropped++;
+            return false;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (frame.pixels.length < width * height){
+            frame.pixels = new int[width * height];
+        }
+        int type = image.getType();
+        if (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB){
+            // bulk row copies, without turning every pixel into an sRGB int
+            image.getRaster().getDataElements(0, 0, width, height, frame.pixels);
+        }
+        else{
+            image.getRGB(0, 0, width, height, frame.pixels, 0, width);
+        }
+        frame.width = width;
+        frame.height = height;
+        frame.index = submitted;
+        submitted++;
+        queue.add(frame);
+        return true;
+    }
+    /**
+     * Waits until the queued frames are written, then stops the encoder threads. Frames
+     * submitted from now on are dropped.
+     *
+     * @throws UncheckedIOException if any frame couldn't be written
+     */
+    public void close(){
+        // under the submit lock, so no frame can be queued behind the STOP markers
+        synchronized (this){
+            if (closed){
+                return;
+            }
+            closed = true;
+            for (int i = 0; i < encoders.length; i++){
+                put(queue, STOP);
+            }
+        }
+        for (Thread encoder : encoders){
+            try {
+                encoder.join();
+            }
+            catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (failure != null){
+            throw new UncheckedIOException("Couldn't export frames to " + directory, failure);
+        }
+    }
+    /**
+     * Returns the number of frames written to disk so far.
+     *
+     * @return the written frame count
+     */
+    public long getWritten(){
+        return written.get();
+    }
+    /**
+     * Returns the number of frames skipped because the encoders had fallen behind.
+     *
+     * @return the dropped frame count; with the {@value #BLOCK} policy only frames
+     *         submitted after {@link #close()}
+     */
+    public long getDropped(){
+        return dropped;
+    }
+    /**
+     * Encoder thread: writes queued frames until it takes a {@link #STOP} marker. After a
+     * failed write it keeps draining the queue so a blocking submitter never hangs.
+     */
+    private void encode(){
+        BufferedImage image = null;
+        ByteBuffer bytes = null;
+        while (true){
+            ExportFrame frame = take(queue);
+            if (frame == null || frame == STOP){
+                return;
+            }
+            try {
+                if (failure == null){
+                    if (png){
+                        if (image == null || image.getWidth() != frame.width || image.getHeight() != frame.height){
+                            image = new BufferedImage(frame.width, frame.height, BufferedImage.TYPE_INT_RGB);
+                        }
+                        image.getRaster().setDataElements(0, 0, frame.width, frame.height, frame.pixels);
+                        ImageIO.write(image, "png", file(frame, "png").toFile());
+                    }
+                    else{
+                        int n = frame.width * frame.height;
+                        if (bytes == null || bytes.capacity() < n * 3){
+                            bytes = ByteBuffer.allocateDirect(n * 3);
+                        }
+                        bytes.clear();
+                        for (int i = 0; i < n; i++){
+                            int rgb = frame.pixels[i];
+                            bytes.put((byte) (rgb >> 16)).put((byte) (rgb >> 8)).put((byte) rgb);
+                        }
+                        bytes.flip();
+                        try (FileChannel channel = FileChannel.open(file(frame, "rgb"),
+                                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+                            while (bytes.hasRemaining()){
+                                channel.write(bytes);
+                            }
+                        }
+                    }
+                    written.incrementAndGet();
+                }
+            }
+            catch (IOException e){
+                if (failure == null){
+                    failure = e;
+                }
+            }
+            finally {
+                free.add(frame);
+            }
+        }
+    }
+    /**
+     * Returns the path of a frame's file.
+     */
+    private Path file(ExportFrame frame, String extension){
+        return directory.resolve(String.format("frame_%06d.%s", frame.index, extension));
+    }
+    /**
+     * Takes the head of a queue, waiting if it is empty.
+     *
+     * @return the head, or {@code null} if the thread was interrupted
+     */
+    private static ExportFrame take(ArrayBlockingQueue<ExportFrame> from){
+        try {
+            return from.take();
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    /**
+     * Adds to a queue, waiting for space if it is full.
+     */
+    private static void put(ArrayBlockingQueue<ExportFrame> to, ExportFrame frame){
+        try {
+            to.put(frame);
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+}
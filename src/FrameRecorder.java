@@ -0,0 +1,204 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+/**
+ * Writes the bodies of every tick to a binary recording that {@link Recording} can replay.
+ * <p>
+ * All values are little-endian. The file starts with a 32-byte header:
+ * <pre>
+ *   int  magic          'MMR1'
+ *   int  version        1
+ *   int  window_size_x
+ *   int  window_size_y
+ *   long frame_count
+ *   long index_offset   where the frame index starts
+ * </pre>
+ * followed by one record per frame, each starting on an 8-byte boundary:
+ * <pre>
+ *   long  tick
+ *   int   count
+ *   int   reserved      0
+ *   int[] x, then int[] y, then int[] size, each of length count
+ *   byte[] type         of length count, padded with zeros to 8 bytes
+ * </pre>
+ * and finally the index, one {@code long} file offset per frame. The header and index
+ * are only filled in by {@link #close()}, so a recording that was never closed cannot be replayed.
+ * <p>
+ * A tick is collected by calling {@link #begin(long)}, visiting every body, and calling
+ * {@link #end()}, which writes the record through the file channel from one reused direct buffer.
+ */
+public class FrameRecorder implements BodyVisitor {
+    /** The first four bytes of every recording, "MMR1" read as a little-endian int. */
+    public static final int MAGIC = 0x31524D4D;
+    /** The format version written to the header. */
+    public static final int VERSION = 1;
+    /** The size of the file header, in bytes. */
+    public static final int HEADER_SIZE = 32;
+    /** The size of the fixed part of a frame record, in bytes. */
+    public static final int FRAME_HEADER_SIZE = 16;
+
+    /** The file being written. */
+    private FileChannel channel;
+    /** Window width stored in the header. */
+    private int window_size_x;
+    /** Window height stored in the header. */
+    private int window_size_y;
+    /** Reused buffer holding one encoded frame. */
+    private ByteBuffer buffer;
+    /** Int view over {@link #buffer}, for bulk copies of the coordinate arrays. */
+    private IntBuffer ints;
+    /** The x-coordinate of each body in the current tick. */
+    private int[] x = new int[16];
+    /** The y-coordinate of each body in the current tick. */
+    private int[] y = new int[16];
+    /** The diameter of each body in the current tick. */
+    private int[] size = new int[16];
+    /** The type of each body in the current tick. */
+    private byte[] type = new byte[16];
+    /** The number of bodies visited since {@link #begin(long)}. */
+    private int count;
+    /** The tick being collected. */
+    private long tick;
+    /** File offset of every frame written so far. */
+    private long[] index = new long[64];
+    /** The number of frames written. */
+    private int frames;
+    /** File offset the next frame will be written at. */
+    private long position;
+    /**
+     * Creates (or truncates) a recording file.
+     *
+     * @param path          the file to write
+     * @param window_size_x the width of the recorded window
+     * @param window_size_y the height of the recorded window
+     * @throws IOException if the file cannot be opened
+     */
+    public FrameRecorder(Path path, int window_size_x, int window_size_y) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.window_size_x = window_size_x;
+        this.window_size_y = window_size_y;
+        allocate(4096);
+        position = HEADER_SIZE;
+        channel.position(position);
+    }
+    /**
+     * Starts collecting a new tick.
+     *
+     * @param tick the tick the following bodies belong to
+     */
+    public void begin(long tick){
+        this.tick = tick;
+        this.count = 0;
+    }
+    /**
+     * Adds one body to the current tick.
+     *
+     * @param x         the x-coordinate of the body's top-left corner
+     * @param y         the y-coordinate of the body's top-left corner
+     * @param body_size the diameter of the body
+     * @param type      {@link Body#MOTION} or {@link Body#STAR}
+     */
+    public void visit(double x, double y, int body_size, byte type){
+        if (count == this.x.length){
+            int capacity = count * 2;
+            this.x = Arrays.copyOf(this.x, capacity);
+            this.y = Arrays.copyOf(this.y, capacity);
+            this.size = Arrays.copyOf(this.size, capacity);
+            this.type = Arrays.copyOf(this.type, capacity);
+        }
+        this.x[count] = (int) x;
+        this.y[count] = (int) y;
+        this.size[count] = body_size;
+        this.type[count] = type;
+        count++;
+    }
+    /**
+     * Encodes the current tick and appends it to the file.
+     *
+     * @throws IOException if the write fails
+     */
+    public void end() throws IOException {
+        int length = recordSize(count);
+        if (length > buffer.capacity()){
+            allocate(Math.max(length, buffer.capacity() * 2));
+        }
+        int n = count;
+        buffer.clear();
+        buffer.putLong(0, tick);
+        buffer.putInt(8, n);
+        buffer.putInt(12, 0);
+        int base = FRAME_HEADER_SIZE / 4;
+        ints.put(base, x, 0, n);
+        ints.put(base + n, y, 0, n);
+        ints.put(base + 2 * n, size, 0, n);
+        int types = FRAME_HEADER_SIZE + 12 * n;
+        buffer.put(types, type, 0, n);
+        for (int i = types + n; i < length; i++){
+            buffer.put(i, (byte) 0);
+        }
+        buffer.limit(length);
+        while (buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+        if (frames == index.length){
+            index = Arrays.copyOf(index, frames * 2);
+        }
+        index[frames] = position;
+        frames++;
+        position += length;
+    }
+    /**
+     * Writes the frame index and the header, then closes the file.
+     *
+     * @throws IOException if the write fails
+     */
+    public void close() throws IOException {
+        ByteBuffer table = ByteBuffer.allocate(frames * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < frames; i++){
+            table.putLong(index[i]);
+        }
+        table.flip();
+        while (table.hasRemaining()){
+            channel.write(table);
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(window_size_x).putInt(window_size_y);
+        header.putLong(frames).putLong(position);
+        header.flip();
+        long at = 0;
+        while (header.hasRemaining()){
+            at += channel.write(header, at);
+        }
+        channel.close();
+    }
+    /**
+     * Returns the number of frames written so far.
+     *
+     * @return the frame count
+     */
+    public int getFrameCount(){
+        return frames;
+    }
+    /**
+     * Returns the size of a frame record holding {@code count} bodies, including padding.
+     *
+     * @param count the number of bodies
+     * @return the record size in bytes, a multiple of 8
+     */
+    public static int recordSize(int count){
+        return (FRAME_HEADER_SIZE + 13 * count + 7) & ~7;
+    }
+    /**
+     * Replaces the encode buffer with a larger one.
+     */
+    private void allocate(int capacity){
+        buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        ints = buffer.asIntBuffer();
+    }
+}
@@ -0,0 +1,11 @@
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+/**
+ * JFR event spanning the body generator calls of one tick.
+ */
+@Name("massivemotion.Generate")
+@Label("Generate")
+@Description("Spawning new bodies at the screen edges")
+public class GenerateEvent extends PhaseEvent {
+}
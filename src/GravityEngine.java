@@ -0,0 +1,85 @@
+import java.util.Arrays;
+/**
+ * Base class for the gravity passes that pull bodies towards each other.
+ * <p>
+ * Positions are in pixels and time advances one tick at a time, so the physical
+ * constant is rescaled once up front: with {@code distance_scale} metres per pixel and
+ * {@code time_scale} seconds per tick, a body of mass {@code m} kilograms at distance
+ * {@code r} pixels accelerates another by {@code strength * m / r^2} pixels per tick per tick,
+ * where {@code strength = G * time_scale^2 / distance_scale^3}. A softening length keeps the
+ * force finite when two bodies overlap.
+ * <p>
+ * Forces act between body centres. Each call to {@link #apply(BodyBuffer)} adds one tick's worth
+ * of acceleration to every velocity; the positions are then advanced by the body store's step.
+ */
+public abstract class GravityEngine {
+    /** The gravitational constant, in m^3 kg^-1 s^-2. */
+    public static final double G = 6.674e-11;
+
+    /** {@code G} rescaled to pixels and ticks. */
+    protected double strength;
+    /** Square of the softening length, in pixels squared. */
+    protected double softening2;
+    /** Centre x-coordinate of every body, refreshed by {@link #centres(BodyBuffer)}. */
+    protected double[] cx = new double[16];
+    /** Centre y-coordinate of every body, refreshed by {@link #centres(BodyBuffer)}. */
+    protected double[] cy = new double[16];
+    /**
+     * Constructs an engine for the given unit scales.
+     *
+     * @param distance_scale metres represented by one pixel
+     * @param time_scale     seconds represented by one tick
+     * @param softening      softening length, in pixels
+     */
+    public GravityEngine(double distance_scale, double time_scale, double softening){
+        this.strength = G * time_scale * time_scale / (distance_scale * distance_scale * distance_scale);
+        this.softening2 = softening * softening;
+    }
+    /**
+     * Adds one tick of gravitational acceleration to the velocity of every body in the buffer.
+     *
+     * @param bodies the bodies to update
+     */
+    public abstract void apply(BodyBuffer bodies);
+    /**
+     * Fills {@link #cx} and {@link #cy} with the centre of every body in the buffer.
+     *
+     * @param bodies the bodies to read
+     */
+    protected void centres(BodyBuffer bodies){
+        int n = bodies.count;
+        if (n > cx.length){
+            cx = Arrays.copyOf(cx, Math.max(n, cx.length * 2));
+            cy = Arrays.copyOf(cy, cx.length);
+        }
+        for (int i = 0; i < n; i++){
+            double half = bodies.size[i] * 0.5;
+            cx[i] = bodies.x[i] + half;
+            cy[i] = bodies.y[i] + half;
+        }
+    }
+    /**
+     * Creates the engine named by the {@code gravity} key.
+     *
+     * @param gravity        the engine name (none, direct, barneshut)
+     * @param theta          the Barnes-Hut opening angle
+     * @param distance_scale metres represented by one pixel
+     * @param time_scale     seconds represented by one tick
+     * @param softening      softening length, in pixels
+     * @return the engine, or {@code null} for {@code none}
+     * @throws IllegalArgumentException if the name is not a known engine
+     */
+    public static GravityEngine create(String gravity, double theta, double distance_scale,
+                                       double time_scale, double softening){
+        switch (gravity){
+            case "none":
+                return null;
+            case "direct":
+                return new DirectGravity(distance_scale, time_scale, softening);
+            case "barneshut":
+                return new BarnesHutGravity(theta, distance_scale, time_scale, softening);
+            default:
+                throw new IllegalArgumentException("Unknown gravity engine: " + gravity);
+        }
+    }
+}
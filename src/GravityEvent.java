@@ -0,0 +1,11 @@
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+/**
+ * JFR event spanning the gravity pass of one tick.
+ */
+@Name("massivemotion.Gravity")
+@Label("Gravity")
+@Description("Gravity pass over the body buffer")
+public class GravityEvent extends PhaseEvent {
+}
@@ -0,0 +1,109 @@
+import java.util.Arrays;
+/**
+ * Runs a {@link Simulation} without a window, as fast as the machine allows.
+ * <p>
+ * Every tick spawns, moves and culls bodies exactly like the animated version, but
+ * nothing is painted and no AWT classes are touched, so it can run on CI and load
+ * machines. At the end it prints the tick throughput, the average and p99 tick time,
+ * and the peak body count for the chosen {@code list} implementation.
+ * <p>
+ * Usage: {@code java HeadlessRunner <MassiveMotion.txt> [ticks]}. When the tick count
+ * is not given on the command line it is read from the {@code headless_ticks} key.
+ * The optional {@code headless_warmup} key runs that many untimed ticks first so
+ * the JIT has compiled the hot loop before measuring. With the {@code record} key set,
+ * the run is written to a recording that the animated version can replay.
+ *
+ * @author Paul Gedrimas
+ */
+public class HeadlessRunner {
+    /** The simulation being measured. */
+    private Simulation simulation;
+    /** Number of measured ticks. */
+    private int ticks;
+    /** Number of untimed ticks run before measuring. */
+    private int warmup;
+    /**
+     * Constructs a runner for the given simulation.
+     *
+     * @param simulation the simulation to drive
+     * @param ticks      the number of measured ticks
+     * @param warmup     the number of untimed ticks to run first
+     */
+    public HeadlessRunner(Simulation simulation, int ticks, int warmup){
+        this.simulation = simulation;
+        this.ticks = ticks;
+        this.warmup = warmup;
+    }
+    /**
+     * Runs the warm-up and measured ticks and prints a summary to standard output.
+     */
+    public void run(){
+        for (int i = 0; i < warmup; i++){
+            simulation.tick();
+        }
+        long[] tickTimes = new long[ticks];
+        int peakBodies = simulation.getBodies().size();
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++){
+            long tickStart = System.nanoTime();
+            simulation.tick();
+            tickTimes[i] = System.nanoTime() - tickStart;
+            int bodies = simulation.getBodies().size();
+            if (bodies > peakBodies){
+                peakBodies = bodies;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long total = 0;
+        for (long time : tickTimes){
+            total += time;
+        }
+        Arrays.sort(tickTimes);
+        double seconds = elapsed / 1e9;
+        System.out.println("list:         " + simulation.getList());
+        System.out.println("seed:         " + simulation.getSeed());
+        System.out.println("ticks:        " + ticks + " (" + warmup + " warm-up)");
+        System.out.printf("elapsed:      %.3f s%n", seconds);
+        System.out.printf("ticks/sec:    %.1f%n", ticks / seconds);
+        System.out.printf("avg tick:     %.3f us%n", ticks == 0 ? 0.0 : total / (double) ticks / 1e3);
+        System.out.printf("p99 tick:     %.3f us%n", percentile(tickTimes, 0.99) / 1e3);
+        System.out.println("peak bodies:  " + peakBodies);
+        BodyPool pool = simulation.getBodyPool();
+        if (pool != null){
+            System.out.println("pool hits:    " + pool.getHits());
+            System.out.println("pool misses:  " + pool.getMisses());
+        }
+        FrameRecorder recorder = simulation.getRecorder();
+        if (recorder != null){
+            System.out.println("recorded:     " + recorder.getFrameCount() + " frames");
+        }
+    }
+    /**
+     * Returns the value at the given percentile of an already sorted array.
+     *
+     * @param sorted the sorted samples
+     * @param p      the percentile, between 0 and 1
+     * @return the sample at that percentile, or 0 if there are no samples
+     */
+    private static double percentile(long[] sorted, double p){
+        if (sorted.length == 0){
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+    /**
+     * Entry point for a headless run.
+     *
+     * @param args the config file path, optionally followed by the number of ticks
+     */
+    public static void main(String[] args){
+        ConfigReader config = new ConfigReader(args[0]);
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : config.getInt("headless_ticks", 10000);
+        int warmup = config.getInt("headless_warmup", 0);
+        Simulation simulation = new Simulation(config);
+        new HeadlessRunner(simulation, ticks, warmup).run();
+        simulation.close();
+    }
+}
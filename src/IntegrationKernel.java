@@ -0,0 +1,57 @@
+/**
+ * The inner loop of a structure-of-arrays step: advance every position by its velocity
+ * and mark every body that ended up outside the window.
+ * <p>
+ * {@link ScalarKernel} is plain Java and always available. {@code VectorKernel}, under
+ * {@code src/vector}, does the same work with the incubating Vector API, a whole SIMD
+ * register of bodies at a time. It is compiled separately because it needs the
+ * {@code jdk.incubator.vector} module, and {@link #create(String)} loads it by name so the
+ * rest of the simulation still compiles and runs without that module.
+ */
+public interface IntegrationKernel {
+    /**
+     * Moves the bodies in {@code [from, to)} by one tick and marks the ones that left the window.
+     *
+     * @param x     the x-coordinate of every body
+     * @param y     the y-coordinate of every body
+     * @param vx    the velocity of every body in the x-direction
+     * @param vy    the velocity of every body in the y-direction
+     * @param dead  set to {@code true} for every body outside the window, {@code false} otherwise
+     * @param from  the first body to move
+     * @param to    one past the last body to move
+     * @param w     the width of the window
+     * @param h     the height of the window
+     * @return the number of bodies marked
+     */
+    public int moveAndMark(double[] x, double[] y, double[] vx, double[] vy, boolean[] dead,
+                           int from, int to, int w, int h);
+    /**
+     * Returns the kernel named by the {@code kernel} key.
+     * <p>
+     * {@code vector} falls back to the scalar kernel, with a warning on standard error, when
+     * the Vector API kernel was not compiled or the JVM was started without
+     * {@code --add-modules jdk.incubator.vector}.
+     *
+     * @param kernel the kernel name (scalar, vector)
+     * @return the kernel
+     * @throws IllegalArgumentException if the name is not a known kernel
+     */
+    public static IntegrationKernel create(String kernel){
+        switch (kernel){
+            case "scalar":
+                return new ScalarKernel();
+            case "vector":
+                String prefix = IntegrationKernel.class.getPackageName();
+                String name = prefix.isEmpty() ? "VectorKernel" : prefix + ".VectorKernel";
+                try {
+                    return (IntegrationKernel) Class.forName(name).getDeclaredConstructor().newInstance();
+                }
+                catch (ReflectiveOperationException | LinkageError e){
+                    System.err.println("Vector kernel unavailable, using scalar: " + e);
+                    return new ScalarKernel();
+                }
+            default:
+                throw new IllegalArgumentException("Unknown integration kernel: " + kernel);
+        }
+    }
+}
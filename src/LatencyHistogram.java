@@ -0,0 +1,122 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+/**
+ * A fixed-size, lock-free histogram of durations in nanoseconds.
+ * <p>
+ * Values are grouped into log-linear buckets: every power of two is split into eight
+ * equal sub-buckets, so any recorded value is known to within about 12% while the whole
+ * range of a {@code long} fits in under 500 counters. Recording is a couple of shifts and
+ * one atomic increment, cheap enough to run on every tick and every paint; reading
+ * percentiles is safe from any thread, such as the JMX thread.
+ */
+public class LatencyHistogram {
+    /** Number of sub-buckets per power of two, as a power of two. */
+    private static final int SUB_BITS = 3;
+    /** Number of sub-buckets per power of two. */
+    private static final int SUB = 1 << SUB_BITS;
+    /** Total number of buckets, enough for any non-negative {@code long}. */
+    private static final int BUCKETS = SUB + (63 - SUB_BITS) * SUB;
+
+    /** Count of values recorded in each bucket. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    /** Number of values recorded. */
+    private final AtomicLong count = new AtomicLong();
+    /** Sum of all values recorded. */
+    private final AtomicLong total = new AtomicLong();
+    /** Largest value recorded. */
+    private final AtomicLong max = new AtomicLong();
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds; negative values are recorded as 0
+     */
+    public void record(long nanos){
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        long seen = max.get();
+        while (value > seen && !max.compareAndSet(seen, value)){
+            seen = max.get();
+        }
+    }
+    /**
+     * Returns the bucket a value falls into.
+     */
+    private static int bucketOf(long value){
+        if (value < SUB){
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) - SUB;
+        return SUB + (exponent - SUB_BITS) * SUB + sub;
+    }
+    /**
+     * Returns the largest value that falls into a bucket.
+     */
+    private static long upperBound(int bucket){
+        if (bucket < SUB){
+            return bucket;
+        }
+        int exponent = (bucket - SUB) / SUB + SUB_BITS;
+        int sub = (bucket - SUB) % SUB;
+        return ((long) (SUB + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+    /**
+     * Returns an upper estimate of the value at the given percentile.
+     *
+     * @param p the percentile, between 0 and 1
+     * @return the upper bound of the bucket holding that percentile, or 0 if nothing was recorded
+     */
+    public long percentile(double p){
+        long n = count.get();
+        if (n == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++){
+            seen += buckets.get(i);
+            if (seen >= rank){
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return the count
+     */
+    public long getCount(){
+        return count.get();
+    }
+    /**
+     * Returns the mean of the values recorded.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean(){
+        long n = count.get();
+        return n == 0 ? 0 : total.get() / (double) n;
+    }
+    /**
+     * Returns the largest value recorded.
+     *
+     * @return the maximum in nanoseconds
+     */
+    public long getMax(){
+        return max.get();
+    }
+    /**
+     * Clears every bucket and counter. Values recorded concurrently may be partly lost.
+     */
+    public void reset(){
+        for (int i = 0; i < BUCKETS; i++){
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+}
@@ -1,3 +1,6 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 /**
  * A simple singly linked list implementation of the {@code List<T>} interface.
  * <p>
@@ -113,6 +116,7 @@ public class LinkedList<T> implements List<T>{
                     break;
                 }
                 curr = curr.next();
+                count++;
             }
             if (index == size){
                 tail = node;
@@ -177,6 +181,9 @@ public class LinkedList<T> implements List<T>{
             Node<T> curr = head;
             if (index == 0) {
                 head = head.next();
+                if (head == null) {
+                    tail = null;
+                }
                 size--;
                 return curr.getData();
             }
@@ -193,11 +200,42 @@ public class LinkedList<T> implements List<T>{
                         return temp.getData();
                     }
                     curr = curr.next();
+                    count++;
                 }
                 return null;
             }
         }
     }
+    /**
+     * Removes every element that satisfies the given predicate in a single walk
+     * of the list, unlinking matching nodes as they are found.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     */
+    public boolean removeIf(Predicate<? super T> filter){
+        int before = size;
+        Node<T> previous = null;
+        Node<T> curr = head;
+        while (curr != null){
+            Node<T> next = curr.next();
+            if (filter.test(curr.getData())){
+                if (previous == null){
+                    head = next;
+                }
+                else {
+                    previous.setNext(next);
+                }
+                size--;
+            }
+            else {
+                previous = curr;
+            }
+            curr = next;
+        }
+        tail = previous;
+        return size != before;
+    }
     /**
      * Returns the number of elements in the list.
      *
@@ -206,5 +244,57 @@ public class LinkedList<T> implements List<T>{
     public int size(){
         return size;
     }
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public Iterator<T> iterator(){
+        return new LinkedListIterator();
+    }
+    /**
+     * Iterator that keeps a reference to the node before the last returned one,
+     * so {@code remove()} can unlink in constant time.
+     */
+    private class LinkedListIterator implements Iterator<T> {
+        /** Node before {@code lastReturned}, or {@code null} if it is the head. */
+        private Node<T> previous = null;
+        /** Node last returned by {@code next()}, or {@code null} if there is none. */
+        private Node<T> lastReturned = null;
+        /** Node that will be returned by the next call to {@code next()}. */
+        private Node<T> next = head;
+
+        public boolean hasNext(){
+            return next != null;
+        }
+
+        public T next(){
+            if (next == null){
+                throw new NoSuchElementException();
+            }
+            if (lastReturned != null){
+                previous = lastReturned;
+            }
+            lastReturned = next;
+            next = next.next();
+            return lastReturned.getData();
+        }
 
+        public void remove(){
+            if (lastReturned == null){
+                throw new IllegalStateException();
+            }
+            if (previous == null){
+                head = next;
+            }
+            else {
+                previous.setNext(next);
+            }
+            if (lastReturned == tail){
+                tail = previous;
+            }
+            lastReturned = null;
+            size--;
+        }
+    }
 }
@@ -1,12 +1,16 @@
+import java.util.Iterator;
+import java.util.function.Predicate;
 /**
  * A generic interface that defines the basic operations for a list data structure.
  * <p>
  * Implementing classes must support dynamic storage and retrieval of elements
- * based on their position in the list.
+ * based on their position in the list. Lists are also {@link Iterable}, and their
+ * iterators support {@link Iterator#remove()} so callers can drop elements while
+ * walking the list in a single pass.
  *
  * @param <T> the type of elements held in the list
  */
-public interface List<T> {
+public interface List<T> extends Iterable<T> {
     /**
      * Inserts the specified element at the specified position in this list.
      *
@@ -42,4 +46,23 @@ public interface List<T> {
      * @return the size of the list
      */
     public int size ();
+    /**
+     * Removes every element that satisfies the given predicate in a single pass,
+     * keeping the remaining elements in their original order.
+     * <p>
+     * The predicate is evaluated exactly once per element, in list order.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     */
+    public boolean removeIf (Predicate<? super T> filter);
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     * <p>
+     * The iterator supports {@link Iterator#remove()}, which removes the element
+     * last returned by {@code next()} without walking the list again.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public Iterator<T> iterator ();
 }
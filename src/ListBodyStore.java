@@ -0,0 +1,259 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+/**
+ * A {@link BodyStore} that keeps each body as a {@link Body} object inside one of the
+ * {@link List} implementations ({@code arraylist}, {@code single}, {@code double}, {@code dummyhead}, {@code unrolled}, {@code ring}, {@code tree}, {@code adaptive}).
+ * <p>
+ * Stars are kept in a small static partition of their own, apart from the list. The list
+ * only ever holds {@link MotionBody} objects, so the move and cull loops over it call one
+ * known {@code move()} and {@code isOutOfBounds()} that the JIT can inline, instead of
+ * switching between the two body classes at every call. In store order the stars come first.
+ */
+public class ListBodyStore implements BodyStore {
+    /** The list holding every moving body. */
+    private List<MotionBody> bodies;
+    /** The static partition: every star, in the order they were added. */
+    private Star[] stars = new Star[1];
+    /** The number of stars in {@link #stars}. */
+    private int star_count;
+    /** Pool that culled bodies are recycled through, or {@code null} to allocate every spawn. */
+    private BodyPool pool;
+    /** Width of the window used by the cull predicate during the current step. */
+    private int bound_x;
+    /** Height of the window used by the cull predicate during the current step. */
+    private int bound_y;
+    /** Cull predicate, created once so stepping does not allocate a new lambda per tick. */
+    private final Predicate<MotionBody> offScreen = body -> body.isOutOfBounds(bound_x, bound_y) && recycle(body);
+    /** Bodies copied out of the list so the parallel pass can split them by index. */
+    private MotionBody[] snapshot = new MotionBody[16];
+    /** Out-of-bounds marks written by the parallel move pass. */
+    private boolean[] dead = new boolean[16];
+    /** Removal marks read by {@link #marked}: {@link #dead} or the dead flags of a written buffer. */
+    private boolean[] marks;
+    /** Position of the next body the marked-removal predicate will see. */
+    private int cursor;
+    /** Removal predicate for marked bodies; relies on removeIf visiting each element once, in order. */
+    private final Predicate<MotionBody> marked = body -> marks[cursor++] && recycle(body);
+    /**
+     * Constructs a store backed by the given (empty) list.
+     *
+     * @param bodies the list implementation that will hold the moving bodies
+     */
+    public ListBodyStore(List<MotionBody> bodies){
+        this(bodies, null);
+    }
+    /**
+     * Constructs a store backed by the given (empty) list that recycles culled bodies.
+     *
+     * @param bodies the list implementation that will hold the moving bodies
+     * @param pool   the pool to take spawned bodies from and return culled ones to, or {@code null}
+     */
+    public ListBodyStore(List<MotionBody> bodies, BodyPool pool){
+        this.bodies = bodies;
+        this.pool = pool;
+    }
+    /**
+     * Adds a {@link Star} to the static partition.
+     *
+     * @param x         the x-coordinate of the star
+     * @param y         the y-coordinate of the star
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
+     * @param body_size the size (diameter) of the star
+     * @param mass      the mass of the star
+     */
+    public void addStar(double x, double y, double vx, double vy, int body_size, double mass){
+        if (star_count == stars.length){
+            stars = Arrays.copyOf(stars, star_count * 2);
+        }
+        stars[star_count] = new Star(x, y, vx, vy, body_size, mass);
+        star_count++;
+    }
+    /**
+     * Adds a {@link MotionBody} to the list, reusing a pooled one when possible.
+     *
+     * @param x         the initial x-coordinate of the body
+     * @param y         the initial y-coordinate of the body
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
+     * @param body_size the diameter of the body when drawn
+     * @param mass      the mass of the body
+     */
+    public void add(double x, double y, double vx, double vy, int body_size, double mass){
+        if (pool != null){
+            bodies.add(pool.acquire(x, y, vx, vy, body_size, mass));
+        }
+        else{
+            bodies.add(new MotionBody(x, y, vx, vy, body_size, mass));
+        }
+    }
+    /**
+     * Moves the stars, then every moving body, and culls every body that left the screen in
+     * one compaction pass.
+     *
+     * @param window_size_x the width of the window
+     * @param window_size_y the height of the window
+     */
+    public void step(int window_size_x, int window_size_y){
+        stepStars(window_size_x, window_size_y);
+        for (MotionBody body : bodies){
+            body.move();
+        }
+        bound_x = window_size_x;
+        bound_y = window_size_y;
+        bodies.removeIf(offScreen);
+    }
+    /**
+     * Copies the bodies into an array, moves and marks them on the pool, and then removes
+     * the marked ones with a single {@link List#removeIf} pass.
+     *
+     * @param window_size_x the width of the window
+     * @param window_size_y the height of the window
+     * @param pool          the pool to run the move pass on
+     * @param grain         the number of bodies each fork/join task handles without splitting
+     */
+    public void step(int window_size_x, int window_size_y, ForkJoinPool pool, int grain){
+        stepStars(window_size_x, window_size_y);
+        int n = bodies.size();
+        if (snapshot.length < n){
+            int capacity = Math.max(n, snapshot.length * 2);
+            snapshot = new MotionBody[capacity];
+            dead = new boolean[capacity];
+        }
+        int i = 0;
+        for (MotionBody body : bodies){
+            snapshot[i] = body;
+            i++;
+        }
+        bound_x = window_size_x;
+        bound_y = window_size_y;
+        pool.invoke(new RangeTask(0, n, grain, this::moveRange));
+        removeMarked(dead, 0);
+        for (i = 0; i < n; i++){
+            snapshot[i] = null;
+        }
+    }
+    /**
+     * Moves the stars and removes the ones that left the window, keeping the rest in order.
+     */
+    private void stepStars(int window_size_x, int window_size_y){
+        int kept = 0;
+        for (int i = 0; i < star_count; i++){
+            Star star = stars[i];
+            star.move();
+            if (!star.isOutOfBounds(window_size_x, window_size_y)){
+                stars[kept] = star;
+                kept++;
+            }
+        }
+        keepStars(kept);
+    }
+    /**
+     * Shrinks the star partition to its first {@code kept} stars.
+     */
+    private void keepStars(int kept){
+        for (int i = kept; i < star_count; i++){
+            stars[i] = null;
+        }
+        star_count = kept;
+    }
+    /**
+     * Removes every body whose position in the list is marked, in one {@link List#removeIf} pass.
+     *
+     * @param marks one flag per body, in list order
+     * @param from  the index in {@code marks} of the first body in the list
+     */
+    private void removeMarked(boolean[] marks, int from){
+        this.marks = marks;
+        cursor = from;
+        bodies.removeIf(marked);
+        this.marks = null;
+    }
+    /**
+     * Moves the bodies in {@code [from, to)} of the snapshot and marks the ones that left the window.
+     */
+    private void moveRange(int from, int to){
+        for (int i = from; i < to; i++){
+            MotionBody body = snapshot[i];
+            body.move();
+            dead[i] = body.isOutOfBounds(bound_x, bound_y);
+        }
+    }
+    /**
+     * Hands a culled body to the pool, if there is one.
+     *
+     * @param body the body being removed
+     * @return always {@code true}, so it can end a removal predicate
+     */
+    private boolean recycle(MotionBody body){
+        if (pool != null){
+            pool.release(body);
+        }
+        return true;
+    }
+    /**
+     * Copies the stars and then every moving body into the buffer, walking the list once.
+     *
+     * @param buffer the buffer to fill
+     */
+    public void read(BodyBuffer buffer){
+        buffer.reset(size());
+        for (int i = 0; i < star_count; i++){
+            buffer.set(i, stars[i]);
+        }
+        int i = star_count;
+        for (MotionBody body : bodies){
+            buffer.set(i, body);
+            i++;
+        }
+    }
+    /**
+     * Copies the buffer back into the stars and the bodies by walking the list once, then
+     * removes the bodies marked dead in a single {@link List#removeIf} pass.
+     *
+     * @param buffer the buffer previously filled by {@link #read(BodyBuffer)}
+     */
+    public void write(BodyBuffer buffer){
+        int kept = 0;
+        for (int i = 0; i < star_count; i++){
+            buffer.get(i, stars[i]);
+            if (!buffer.dead[i]){
+                stars[kept] = stars[i];
+                kept++;
+            }
+        }
+        int i = star_count;
+        for (MotionBody body : bodies){
+            buffer.get(i, body);
+            i++;
+        }
+        int first = star_count;
+        keepStars(kept);
+        if (buffer.removed > 0){
+            removeMarked(buffer.dead, first);
+        }
+    }
+    /**
+     * Hands every star and then every moving body, in list order, to the visitor.
+     *
+     * @param visitor the visitor to call for each body
+     */
+    public void forEach(BodyVisitor visitor){
+        for (int i = 0; i < star_count; i++){
+            Star star = stars[i];
+            visitor.visit(star.x, star.y, star.body_size, Body.STAR);
+        }
+        for (MotionBody body : bodies){
+            visitor.visit(body.x, body.y, body.body_size, Body.MOTION);
+        }
+    }
+    /**
+     * Returns the number of stars and moving bodies stored.
+     *
+     * @return the number of bodies
+     */
+    public int size(){
+        return star_count + bodies.size();
+    }
+}
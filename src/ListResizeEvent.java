@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+/**
+ * JFR event spanning one growth or shrink of a backing array, such as {@code ArrayList.resize(int)}.
+ */
+@Name("massivemotion.ListResize")
+@Label("List Resize")
+@Category("Massive Motion")
+@Description("Growing or shrinking the backing array of a list or body store")
+public class ListResizeEvent extends Event {
+    /** Number of elements held when the array was resized. */
+    @Label("Body Count")
+    public int bodyCount;
+    /** Name of the list implementation that was resized. */
+    @Label("List")
+    public String list;
+    /** Capacity before growing. */
+    @Label("Old Capacity")
+    public int oldCapacity;
+    /** Capacity after growing. */
+    @Label("New Capacity")
+    public int newCapacity;
+    /** Approximate size of the new backing array(s). */
+    @Label("Allocated")
+    @DataAmount
+    public long allocated;
+}
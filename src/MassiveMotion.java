@@ -1,46 +1,56 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.Random;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * The {@code MassiveMotion} class represents a simulation of moving celestial bodies
- * on a 2D plane. It uses a timer to update and render the simulation using different list implementations.
+ * on a 2D plane. The simulation runs on its own thread at a fixed timestep, and this panel
+ * only draws the most recent snapshot it has published, using different list implementations.
  * <p>
  * Configuration is loaded from a properties file, allowing customization
- * of the window size, body properties, and list implementation.
+ * of the window size, body properties, and list implementation. When the {@code replay}
+ * key names a recording, no simulation is run and the recorded frames are shown instead.
+ * When the {@code export} key names a directory, every newly painted frame is also written
+ * there by a {@link FrameExporter}.
+ * <p>
+ * With the buffered renderer, a new snapshot only repaints the rectangles of the panel whose
+ * bodies changed, as found by the renderer's {@link DirtyRegion}, instead of the whole panel.
  *
  * @author Paul Gedrimas
  */
-public class MassiveMotion extends JPanel implements ActionListener {
-    /** Timer triggering animation updates. */
-    protected Timer tm;
-    /** List storing all body objects in the simulation. This will depend on the propfile */
-    protected List<Body> bodies;
-    /** Random number generator for body creation and movement/velocity. */
-    protected Random rand;
-    /** Width of the screen. */
-    protected static int window_size_x;
-    /** Height of the screen. */
-    protected static int window_size_y;
-    /** Probability of generating body top or bottom of screen*/
-    protected double gen_x;
-    /** Probability of generating a body on each side of screen */
-    protected double gen_y;
-    /** Velocity of generated bodies. */
-    protected int body_velocity;
-    /** Diameter of each body. */
-    protected int body_size;
-    /** X-coordinate for placing central star. */
-    protected int star_position_x;
-    /** Y-coordinate for placing central star. */
-    protected int star_position_y;
-    /** Diameter of star. */
-    protected int star_size;
-    /** Type of list implementation used (arraylist, single, double, dummyhead). */
-    protected String list; //arraylist, single, double, dummyhead
-    /** Delay between animation frames, in milliseconds. */
+public class MassiveMotion extends JPanel {
+    /** Thread advancing the simulation once per timer_delay, or {@code null} when replaying. */
+    protected SimulationLoop loop;
+    /** Thread playing back a recording, or {@code null} when running a live simulation. */
+    protected ReplayLoop replay;
+    /** Snapshots handed from the simulation thread to this panel. */
+    protected FrameExchanger frames;
+    /** The simulation being animated, or {@code null} when replaying. */
+    protected Simulation simulation;
+    /** The list implementation named in paint events; {@code replay} when replaying. */
+    protected String list;
+    /** The width of the window. */
+    protected int window_size_x;
+    /** The height of the window. */
+    protected int window_size_y;
+    /** Delay between simulation ticks, in milliseconds. */
     protected int timer_delay;
+    /** Offscreen renderer, or {@code null} to let each body paint itself. */
+    protected BufferedRenderer renderer;
+    /** Instrumentation shared with the simulation, or {@code null} when metrics are off. */
+    protected SimulationMetrics metrics;
+    /** Writes painted frames to disk, or {@code null} when not exporting. */
+    protected FrameExporter exporter;
+    /** Tick of the last frame handed to the exporter, so repaints of the same frame aren't exported twice. */
+    protected long exported_tick = -1;
+    /** Whether new snapshots repaint only their dirty rectangles; needs the buffered renderer. */
+    protected boolean dirty_repaint;
+    /** Set while a dirty repaint is waiting on the Swing thread, so snapshots don't queue up behind it. */
+    protected final AtomicBoolean refresh_pending = new AtomicBoolean();
+    /** The snapshot the offscreen frame shows in dirty repaint mode, or {@code null} before the first one. */
+    protected Frame shown;
 
     /**
      * Constructs a {@code MassiveMotion} object using configuration from a property file.
@@ -48,139 +58,189 @@ public class MassiveMotion extends JPanel implements ActionListener {
      * @param propfile the path to the configuration file.
      */
     public MassiveMotion(String propfile) {
-//    public MassiveMotion() {
+        this(new ConfigReader(propfile));
+    }
+    /**
+     * Constructs a {@code MassiveMotion} object from an already loaded configuration.
+     *
+     * @param config the configuration to read the simulation parameters from
+     */
+    public MassiveMotion(ConfigReader config) {
         // propfile read and variables set
-        ConfigReader config = new ConfigReader(propfile);
         timer_delay = config.getInt("timer_delay");
-        list = config.get("list");
-        switch (list){
-            case "arraylist":
-                bodies = new ArrayList<>();
-                break;
-            case "single":
-                bodies = new LinkedList<>();
-                break;
-            case "double":
-                bodies = new DoublyLinkedList<>();
-                break;
-            case "dummyhead":
-                bodies = new DummyHeadLinkedList<>();
-                break;
+        frames = new FrameExchanger();
+        String path = config.get("replay");
+        if (path != null){
+            Recording recording;
+            try {
+                recording = new Recording(Path.of(path.trim()));
+            }
+            catch (IOException e){
+                throw new UncheckedIOException("Couldn't open recording " + path, e);
+            }
+            replay = new ReplayLoop(recording, frames, timer_delay, config.getDouble("replay_speed", 1),
+                    config.getInt("replay_start", 0), this::frameReady);
+            list = "replay";
+            window_size_x = recording.getWindowSizeX();
+            window_size_y = recording.getWindowSizeY();
+        }
+        else{
+            simulation = new Simulation(config);
+            loop = new SimulationLoop(simulation, frames, timer_delay, this::frameReady);
+            metrics = simulation.getMetrics();
+            if (metrics != null){
+                metrics.setFrames(frames);
+            }
+            list = simulation.getList();
+            window_size_x = simulation.getWindowSizeX();
+            window_size_y = simulation.getWindowSizeY();
+        }
+        String export = config.get("export");
+        if (export != null){
+            try {
+                exporter = new FrameExporter(Path.of(export.trim()), config.get("export_format", "png"),
+                        config.get("export_policy", FrameExporter.DROP), config.getInt("export_queue", 8),
+                        config.getInt("export_threads", 2));
+            }
+            catch (IOException e){
+                throw new UncheckedIOException("Couldn't create export directory " + export, e);
+            }
+        }
+        // exporting copies the offscreen image, so it always uses the buffered renderer
+        if (config.get("renderer", "direct").equals("buffered") || exporter != null){
+            renderer = new BufferedRenderer();
+            dirty_repaint = config.get("dirty_repaint", "true").equals("true");
         }
-
-        window_size_x = config.getInt("window_size_x");
-        window_size_y = config.getInt("window_size_y");
-        gen_x = config.getDouble("gen_x");
-        gen_y = config.getDouble("gen_y");
-        body_size = config.getInt("body_size");
-        body_velocity = config.getInt("body_velocity");
-        star_position_x = config.getInt("star_position_x");
-        star_position_y = config.getInt("star_position_y");
-        star_size = config.getInt("star_size");
-        rand = new Random();
-        tm = new Timer(timer_delay, this);
-
-        //Initial star is generated
-        GenerateStar();
     }
     /**
-     * Adds the central star to the simulation.
+     * Starts advancing the simulation, or playing the recording, on its own thread.
      */
-    public void GenerateStar(){
-        Star sun = new Star(star_position_x, star_position_y, star_size);
-        bodies.add(sun);
+    public void start() {
+        if (replay != null){
+            replay.start();
+        }
+        else{
+            loop.start();
+        }
     }
     /**
-     * Paints the bodies on the simulation panel based on the list implementation chosen
-     *
-     * @param g the graphics context to draw on
+     * Stops the simulation or playback thread and finishes any recording or export in progress.
      */
-    public void paintComponent(Graphics g) {
-        super.paintComponent(g); // Probably best you leave this as is.
-
-        for (int i = 0; i < bodies.size(); i++){
-            bodies.get(i).paintBody(g);
+    public void stop() {
+        if (replay != null){
+            replay.stop();
+        }
+        else{
+            loop.stop();
+            simulation.close();
+        }
+        if (exporter != null){
+            try {
+                exporter.close();
+            }
+            finally {
+                // still reported when close() rethrows a failed write
+                System.out.println("exported " + exporter.getWritten() + " frames, dropped " + exporter.getDropped());
+            }
         }
-
-        // Recommend you leave the next line as is
-        tm.start();
     }
     /**
-     * Randomly generates a new body from one edge of the screen depending on the axis.
+     * Jumps playback to the given frame of the recording; does nothing for a live simulation.
      *
-     * @param isGenX if true, generate along top or bottom; otherwise, on either side.
+     * @param frame the frame index to show next
      */
-    private void bodyGenerator(boolean isGenX){
-        double gen;
-        int x1, y1, vx1, vy1;
-        if (isGenX){
-            gen = gen_x;
+    public void seek(int frame) {
+        if (replay != null){
+            replay.seek(frame);
         }
-        else{
-            gen = gen_y;
+    }
+    /**
+     * Called by the simulation or playback thread after each published snapshot. Schedules a
+     * dirty repaint on the Swing thread, or a full repaint when dirty repainting is off.
+     */
+    protected void frameReady() {
+        if (!dirty_repaint){
+            repaint();
         }
-
-        if (rand.nextDouble() <= gen){
-            if (rand.nextDouble() < 0.5){
-                if (isGenX){
-                    x1 = window_size_x/2;
-                    y1 = 0;
-                }
-                else
-                {
-                    x1 = 0;
-                    y1 = window_size_y/2;
-                }
-            }
-            else{
-                if (isGenX){
-                    x1 = window_size_x/2;
-                    y1 = window_size_y;
-                }
-                else{
-                    x1 = window_size_x;
-                    y1 = window_size_y/2;
-                }
-            }
-            // velocity is randomly generated by multiplying twice then subtracting the original velocity to make
-            // either positive or negative value
-            vx1 = (int) (rand.nextDouble() * (body_velocity*2)+1) - body_velocity;
-            while (vx1 == 0){
-                vx1 = (int) (rand.nextDouble() * (body_velocity*2)+1) - body_velocity;
-            }
-            vy1 = (int) (rand.nextDouble() * (body_velocity*2)+1) - body_velocity;
-            while (vy1 == 0){
-                vy1 = (int) (rand.nextDouble() * (body_velocity*2)+1) - body_velocity;
-            }
-            //celestial object created and added to chosen implemented list.
-            MotionBody body = new MotionBody(x1, y1, vx1, vy1, body_size);
-            bodies.add(body);
+        else if (refresh_pending.compareAndSet(false, true)){
+            SwingUtilities.invokeLater(this::repaintDirty);
         }
     }
-
     /**
-     * Called automatically by the timer to update the simulation.
+     * Renders the newest snapshot into the offscreen frame, exports it, and paints each
+     * rectangle that changed straight away. Separate {@code repaint} calls would be merged by
+     * the {@link RepaintManager} into one box covering all of them. The snapshot is exported
+     * even when nothing on screen changed, so every tick still reaches the exporter.
+     */
+    protected void repaintDirty() {
+        refresh_pending.set(false);
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc == null || getWidth() <= 0 || getHeight() <= 0){
+            return;
+        }
+        shown = frames.latest();
+        DirtyRegion dirty = renderer.render(shown, gc, getWidth(), getHeight(), getBackground());
+        export(shown);
+        for (int i = 0; i < dirty.count; i++){
+            paintImmediately(dirty.x[i], dirty.y[i], dirty.w[i], dirty.h[i]);
+        }
+    }
+    /**
+     * Hands the offscreen frame to the exporter if it shows a snapshot not exported yet.
      *
-     * @param actionEvent the triggering event (unused)
+     * @param frame the snapshot just rendered into the offscreen frame
      */
-    @Override
-    public void actionPerformed(ActionEvent actionEvent) {
-
-        //random generator for celestial bodies
-        bodyGenerator(true);
-        bodyGenerator(false);
+    private void export(Frame frame) {
+        if (exporter != null && frame.tick != exported_tick && renderer.getImage() != null){
+            exporter.submit(renderer.getImage());
+            exported_tick = frame.tick;
+        }
+    }
+    /**
+     * Paints the most recent snapshot published by the simulation thread. In dirty repaint
+     * mode it paints the snapshot {@link #repaintDirty()} last rendered instead, so the part
+     * of the panel outside the clip never falls behind the offscreen frame. That snapshot is
+     * already in the offscreen frame, so unless the panel was resized it is only copied
+     * within the clip, not rendered again.
+     *
+     * @param g the graphics context to draw on
+     */
+    public void paintComponent(Graphics g) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        PaintEvent event = SimulationEvents.enabled ? new PaintEvent() : null;
+        if (event != null){
+            event.begin();
+        }
+        super.paintComponent(g); // Probably best you leave this as is.
 
-        //move each body and/or remove body from list if it's outside the bounds of the screen
-        for (int i = 0; i < bodies.size(); i++){
-            bodies.get(i).move();
-            if (bodies.get(i).isOutOfBounds(window_size_x, window_size_y)){
-                bodies.remove(i);
+        Frame frame;
+        if (dirty_repaint){
+            if (shown == null){
+                shown = frames.latest();
             }
-            //System.out.println("Bodies Array Size:"+bodies.size());
+            frame = shown;
+        }
+        else{
+            frame = frames.latest();
+        }
+        if (dirty_repaint && renderer.isCurrent(getWidth(), getHeight(), getBackground())){
+            g.drawImage(renderer.getImage(), 0, 0, null);
+        }
+        else if (renderer != null){
+            renderer.paint(g, frame, getWidth(), getHeight(), getBackground());
+            export(frame);
+        }
+        else{
+            frame.paint(g);
+        }
+        if (metrics != null){
+            metrics.recordPaint(System.nanoTime() - start);
+        }
+        if (event != null){
+            event.bodyCount = frame.count;
+            event.list = list;
+            event.commit();
         }
-
-        // Keep this at the end of the function (no matter what you do above):
-        repaint();
     }
     /**
      * Entry point for running the simulation.
@@ -193,9 +253,11 @@ public class MassiveMotion extends JPanel implements ActionListener {
 //        MassiveMotion mm = new MassiveMotion();
         JFrame jf = new JFrame();
         jf.setTitle("Massive Motion");
-        jf.setSize(window_size_x, window_size_y);
+        jf.setSize(mm.window_size_x, mm.window_size_y);
         jf.add(mm);
         jf.setVisible(true);
         jf.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        Runtime.getRuntime().addShutdownHook(new Thread(mm::stop));
+        mm.start();
     }
 }
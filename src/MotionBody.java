@@ -4,32 +4,41 @@ import java.util.*;
 /**
  * Represents a moving body in the simulation, extending the {@link Body} class.
  * <p>
- * Each {@code MotionBody} has a position (inherited from {@code Body}) and
- * a velocity in both the x and y directions. The body updates its position
+ * Each {@code MotionBody} has a position and a velocity in both the x and y
+ * directions (inherited from {@code Body}). The body updates its position
  * based on its velocity when {@code move()} is called.
  */
-public class MotionBody extends Body {
+public final class MotionBody extends Body {
     /**
-     * The velocity of the body in the x-direction.
-     */
-    int vx;
-    /**
-     * The velocity of the body in the y-direction.
+     * Constructs a new {@code MotionBody} with specified position, velocity, size and mass.
+     *
+     * @param x         the initial x-coordinate of the body
+     * @param y         the initial y-coordinate of the body
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
+     * @param body_size the diameter of the body when drawn
+     * @param mass      the mass of the body
      */
-    int vy;
+    public MotionBody(double x, double y, double vx, double vy, int body_size, double mass) {
+        super(x, y, vx, vy, body_size, mass);
+    }
     /**
-     * Constructs a new {@code MotionBody} with specified position, velocity, and size.
+     * Puts a recycled body back into a freshly spawned state.
      *
      * @param x         the initial x-coordinate of the body
      * @param y         the initial y-coordinate of the body
      * @param vx        the velocity in the x-direction
      * @param vy        the velocity in the y-direction
      * @param body_size the diameter of the body when drawn
+     * @param mass      the mass of the body
      */
-    public MotionBody(int x, int y, int vx, int vy, int body_size) {
-        super(x, y, body_size);
+    public void reset(double x, double y, double vx, double vy, int body_size, double mass) {
+        this.x = x;
+        this.y = y;
         this.vx = vx;
         this.vy = vy;
+        this.body_size = body_size;
+        this.mass = mass;
     }
     /**
      * Updates the body's position based on its velocity.
@@ -39,6 +48,14 @@ public class MotionBody extends Body {
         x += vx;
         y += vy;
     }
+    /**
+     * Returns {@link Body#MOTION}.
+     *
+     * @return the type tag of a moving body
+     */
+    public byte getType() {
+        return MOTION;
+    }
     /**
      * Paints the body using the provided {@link Graphics} object.
      * This implementation sets the color to black before drawing the shape.
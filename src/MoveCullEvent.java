@@ -0,0 +1,11 @@
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+/**
+ * JFR event spanning the move and cull step of one tick.
+ */
+@Name("massivemotion.MoveCull")
+@Label("Move and Cull")
+@Description("Moving every body and removing the ones that left the screen")
+public class MoveCullEvent extends PhaseEvent {
+}
@@ -0,0 +1,290 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+/**
+ * A {@link BodyStore} that keeps every body in native memory outside the Java heap.
+ * <p>
+ * Bodies are fixed-size records in one direct {@link ByteBuffer}, so however many there
+ * are, the heap only holds the buffer object itself and the garbage collector never has to
+ * trace or copy them. Each record is {@value #RECORD} bytes:
+ * <pre>
+ *   double x, y, vx, vy, mass   offsets 0, 8, 16, 24, 32
+ *   int    body_size            offset 40
+ *   byte   type                 offset 44
+ *   byte   dead                 offset 45, used by the parallel step
+ * </pre>
+ * The store starts with an explicit capacity and doubles it when full by copying into a new
+ * buffer. Culling compacts the records by moving the last record into each freed slot, so the
+ * live records always fill the front of the buffer without gaps. Native memory is limited by
+ * {@code -XX:MaxDirectMemorySize} rather than the heap size.
+ */
+public class OffHeapBodyStore implements BodyStore {
+    /** Size of one body record, in bytes. */
+    public static final int RECORD = 48;
+    /** Offset of the x-coordinate within a record. */
+    private static final int X = 0;
+    /** Offset of the y-coordinate within a record. */
+    private static final int Y = 8;
+    /** Offset of the x-velocity within a record. */
+    private static final int VX = 16;
+    /** Offset of the y-velocity within a record. */
+    private static final int VY = 24;
+    /** Offset of the mass within a record. */
+    private static final int MASS = 32;
+    /** Offset of the diameter within a record. */
+    private static final int SIZE = 40;
+    /** Offset of the type within a record. */
+    private static final int TYPE = 44;
+    /** Offset of the dead mark within a record. */
+    private static final int DEAD = 45;
+
+    /** The records, in native byte order. */
+    private ByteBuffer memory;
+    /** The number of records the buffer can hold. */
+    private int capacity;
+    /** The number of bodies stored; records at or past this index are unused. */
+    private int count;
+    /** Width of the window during the current parallel step. */
+    private int bound_x;
+    /** Height of the window during the current parallel step. */
+    private int bound_y;
+    /**
+     * Constructs an empty store with room for the given number of bodies.
+     *
+     * @param capacity the number of bodies the buffer can hold before growing
+     * @throws IllegalArgumentException if the capacity would need a buffer larger than 2 GB
+     */
+    public OffHeapBodyStore(int capacity){
+        capacity = Math.max(capacity, 1);
+        if ((long) capacity * RECORD > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("Off-heap capacity too large: " + capacity);
+        }
+        this.capacity = capacity;
+        this.memory = ByteBuffer.allocateDirect(capacity * RECORD).order(ByteOrder.nativeOrder());
+        this.count = 0;
+    }
+    /**
+     * Adds a star.
+     *
+     * @param x         the x-coordinate of the star
+     * @param y         the y-coordinate of the star
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
+     * @param body_size the size (diameter) of the star
+     * @param mass      the mass of the star
+     */
+    public void addStar(double x, double y, double vx, double vy, int body_size, double mass){
+        append(x, y, vx, vy, body_size, mass, Body.STAR);
+    }
+    /**
+     * Adds a moving body.
+     *
+     * @param x         the initial x-coordinate of the body
+     * @param y         the initial y-coordinate of the body
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
+     * @param body_size the diameter of the body when drawn
+     * @param mass      the mass of the body
+     */
+    public void add(double x, double y, double vx, double vy, int body_size, double mass){
+        append(x, y, vx, vy, body_size, mass, Body.MOTION);
+    }
+    /**
+     * Writes a record into the next free slot, growing the buffer if it is full.
+     */
+    private void append(double x, double y, double vx, double vy, int body_size, double mass, byte type){
+        if (count == capacity){
+            grow();
+        }
+        int at = count * RECORD;
+        memory.putDouble(at + X, x);
+        memory.putDouble(at + Y, y);
+        memory.putDouble(at + VX, vx);
+        memory.putDouble(at + VY, vy);
+        memory.putDouble(at + MASS, mass);
+        memory.putInt(at + SIZE, body_size);
+        memory.put(at + TYPE, type);
+        memory.put(at + DEAD, (byte) 0);
+        count++;
+    }
+    /**
+     * Doubles the capacity by copying the records into a new direct buffer.
+     * Emits a {@link ListResizeEvent} when JFR events are enabled.
+     *
+     * @throws IllegalStateException if the doubled buffer would be larger than 2 GB
+     */
+    private void grow(){
+        long bytes = 2L * capacity * RECORD;
+        if (bytes > Integer.MAX_VALUE){
+            throw new IllegalStateException("Off-heap store is full at " + count + " bodies");
+        }
+        ListResizeEvent event = SimulationEvents.enabled ? new ListResizeEvent() : null;
+        if (event != null){
+            event.begin();
+        }
+        ByteBuffer bigger = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        bigger.put(0, memory, 0, count * RECORD);
+        if (event != null){
+            event.bodyCount = count;
+            event.list = "offheap";
+            event.oldCapacity = capacity;
+            event.newCapacity = capacity * 2;
+            event.allocated = bytes;
+            event.commit();
+        }
+        memory = bigger;
+        capacity *= 2;
+    }
+    /**
+     * Moves every body, then removes the ones outside the window by moving the last
+     * record into their slot.
+     *
+     * @param window_size_x the width of the window
+     * @param window_size_y the height of the window
+     */
+    public void step(int window_size_x, int window_size_y){
+        ByteBuffer memory = this.memory;
+        int n = count;
+        for (int at = 0, end = n * RECORD; at < end; at += RECORD){
+            memory.putDouble(at + X, memory.getDouble(at + X) + memory.getDouble(at + VX));
+            memory.putDouble(at + Y, memory.getDouble(at + Y) + memory.getDouble(at + VY));
+        }
+        int i = 0;
+        while (i < n){
+            int at = i * RECORD;
+            double x = memory.getDouble(at + X);
+            double y = memory.getDouble(at + Y);
+            if (x < 0 || x >= window_size_x || y < 0 || y >= window_size_y){
+                n--;
+                moveRecord(n, i);
+            }
+            else{
+                i++;
+            }
+        }
+        count = n;
+    }
+    /**
+     * Moves the bodies and marks the ones outside the window on the pool, then removes the
+     * marked ones with the same move-last-record pass as {@link #step(int, int)}.
+     *
+     * @param window_size_x the width of the window
+     * @param window_size_y the height of the window
+     * @param pool          the pool to run the move pass on
+     * @param grain         the number of bodies each fork/join task handles without splitting
+     */
+    public void step(int window_size_x, int window_size_y, ForkJoinPool pool, int grain){
+        bound_x = window_size_x;
+        bound_y = window_size_y;
+        pool.invoke(new RangeTask(0, count, grain, this::moveRange));
+        removeDead();
+    }
+    /**
+     * Moves the bodies in {@code [from, to)} and marks the ones that left the window.
+     * Absolute buffer accesses to disjoint records are safe from several threads.
+     */
+    private void moveRange(int from, int to){
+        ByteBuffer memory = this.memory;
+        for (int at = from * RECORD, end = to * RECORD; at < end; at += RECORD){
+            double x = memory.getDouble(at + X) + memory.getDouble(at + VX);
+            double y = memory.getDouble(at + Y) + memory.getDouble(at + VY);
+            memory.putDouble(at + X, x);
+            memory.putDouble(at + Y, y);
+            boolean out = x < 0 || x >= bound_x || y < 0 || y >= bound_y;
+            memory.put(at + DEAD, out ? (byte) 1 : (byte) 0);
+        }
+    }
+    /**
+     * Removes every record whose dead mark is set, moving the last record into each gap.
+     */
+    private void removeDead(){
+        int n = count;
+        int i = 0;
+        while (i < n){
+            if (memory.get(i * RECORD + DEAD) != 0){
+                n--;
+                moveRecord(n, i);
+            }
+            else{
+                i++;
+            }
+        }
+        count = n;
+    }
+    /**
+     * Copies record {@code from} over record {@code to}.
+     */
+    private void moveRecord(int from, int to){
+        if (from != to){
+            memory.put(to * RECORD, memory, from * RECORD, RECORD);
+        }
+    }
+    /**
+     * Copies every body into the buffer.
+     *
+     * @param buffer the buffer to fill
+     */
+    public void read(BodyBuffer buffer){
+        buffer.reset(count);
+        ByteBuffer memory = this.memory;
+        for (int i = 0; i < count; i++){
+            int at = i * RECORD;
+            buffer.x[i] = memory.getDouble(at + X);
+            buffer.y[i] = memory.getDouble(at + Y);
+            buffer.vx[i] = memory.getDouble(at + VX);
+            buffer.vy[i] = memory.getDouble(at + VY);
+            buffer.mass[i] = memory.getDouble(at + MASS);
+            buffer.size[i] = memory.getInt(at + SIZE);
+            buffer.type[i] = memory.get(at + TYPE);
+        }
+    }
+    /**
+     * Copies the buffer back, then removes the bodies marked dead in it.
+     *
+     * @param buffer the buffer previously filled by {@link #read(BodyBuffer)}
+     */
+    public void write(BodyBuffer buffer){
+        ByteBuffer memory = this.memory;
+        for (int i = 0; i < count; i++){
+            int at = i * RECORD;
+            memory.putDouble(at + X, buffer.x[i]);
+            memory.putDouble(at + Y, buffer.y[i]);
+            memory.putDouble(at + VX, buffer.vx[i]);
+            memory.putDouble(at + VY, buffer.vy[i]);
+            memory.putDouble(at + MASS, buffer.mass[i]);
+            memory.putInt(at + SIZE, buffer.size[i]);
+            memory.put(at + DEAD, buffer.dead[i] ? (byte) 1 : (byte) 0);
+        }
+        if (buffer.removed > 0){
+            removeDead();
+        }
+    }
+    /**
+     * Hands every body to the visitor in store order.
+     *
+     * @param visitor the visitor to call for each body
+     */
+    public void forEach(BodyVisitor visitor){
+        ByteBuffer memory = this.memory;
+        for (int i = 0; i < count; i++){
+            int at = i * RECORD;
+            visitor.visit(memory.getDouble(at + X), memory.getDouble(at + Y), memory.getInt(at + SIZE), memory.get(at + TYPE));
+        }
+    }
+    /**
+     * Returns the number of bodies stored.
+     *
+     * @return the number of bodies
+     */
+    public int size(){
+        return count;
+    }
+    /**
+     * Returns the number of bodies the store can hold before it has to grow.
+     *
+     * @return the capacity, in bodies
+     */
+    public int getCapacity(){
+        return capacity;
+    }
+}
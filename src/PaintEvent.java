@@ -0,0 +1,11 @@
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+/**
+ * JFR event spanning one {@code paintComponent} call on the Swing thread.
+ */
+@Name("massivemotion.Paint")
+@Label("Paint")
+@Description("Painting one frame on the Swing thread")
+public class PaintEvent extends PhaseEvent {
+}
@@ -0,0 +1,16 @@
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+/**
+ * Base class of the JFR events that span one phase of the simulation. Every phase
+ * records the population and list implementation, so a recording can be sliced by both.
+ */
+@Category("Massive Motion")
+public abstract class PhaseEvent extends Event {
+    /** Number of bodies in the simulation when the phase ended. */
+    @Label("Body Count")
+    public int bodyCount;
+    /** Name of the list implementation in use. */
+    @Label("List")
+    public String list;
+}
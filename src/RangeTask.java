@@ -0,0 +1,60 @@
+import java.util.concurrent.RecursiveAction;
+/**
+ * A fork/join task that splits an index range in halves until each piece is at most
+ * {@code grain} long, then runs the given work on every piece.
+ * <p>
+ * Used by the body stores to spread the move pass of a tick across a {@link java.util.concurrent.ForkJoinPool}.
+ */
+public class RangeTask extends RecursiveAction {
+    /** Serialization version; the task is never serialized, but RecursiveAction is Serializable. */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Work done on one contiguous piece of the range. Pieces never overlap, so the
+     * work may write to per-index slots without synchronisation.
+     */
+    public interface Work {
+        /**
+         * Processes the indices {@code from} (inclusive) to {@code to} (exclusive).
+         *
+         * @param from the first index
+         * @param to   one past the last index
+         */
+        public void run(int from, int to);
+    }
+
+    /** First index of this piece. */
+    private final int from;
+    /** One past the last index of this piece. */
+    private final int to;
+    /** Largest piece that is run directly instead of being split. */
+    private final int grain;
+    /** The work to run on each piece. */
+    private final Work work;
+    /**
+     * Constructs a task over {@code [from, to)}.
+     *
+     * @param from  the first index
+     * @param to    one past the last index
+     * @param grain the largest piece run without splitting further
+     * @param work  the work to run on each piece
+     */
+    public RangeTask(int from, int to, int grain, Work work){
+        this.from = from;
+        this.to = to;
+        this.grain = Math.max(grain, 1);
+        this.work = work;
+    }
+    /**
+     * Runs the work directly if the range is small enough, otherwise forks both halves.
+     */
+    @Override
+    protected void compute(){
+        if (to - from <= grain){
+            work.run(from, to);
+        }
+        else{
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, grain, work), new RangeTask(middle, to, grain, work));
+        }
+    }
+}
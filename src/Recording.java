@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/**
+ * A recording written by {@link FrameRecorder}, memory-mapped for replay.
+ * <p>
+ * The whole file is mapped once when it is opened. Reading a frame looks its offset up in
+ * the index and bulk-copies the coordinate, size and type arrays straight out of the mapping
+ * into a reused {@link Frame}, so any frame can be read in any order with no parsing and no
+ * allocation. One mapping is limited to 2 GB, which bounds the size of a replayable recording.
+ */
+public class Recording {
+    /** The mapped file. */
+    private MappedByteBuffer mapped;
+    /** Int view over the whole mapping, for bulk copies of the coordinate arrays. */
+    private IntBuffer ints;
+    /** The number of frames in the recording. */
+    private int frame_count;
+    /** File offset of the frame index. */
+    private int index_offset;
+    /** Width of the recorded window. */
+    private int window_size_x;
+    /** Height of the recorded window. */
+    private int window_size_y;
+    /**
+     * Opens and maps a recording.
+     *
+     * @param path the file to replay
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a finished recording or is too large to map
+     */
+    public Recording(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE){
+                throw new IllegalArgumentException("Recording too large to map: " + path);
+            }
+            if (length < FrameRecorder.HEADER_SIZE){
+                throw new IllegalArgumentException("Not a recording: " + path);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (mapped.getInt(0) != FrameRecorder.MAGIC || mapped.getInt(4) != FrameRecorder.VERSION){
+            throw new IllegalArgumentException("Not a recording: " + path);
+        }
+        window_size_x = mapped.getInt(8);
+        window_size_y = mapped.getInt(12);
+        frame_count = (int) mapped.getLong(16);
+        index_offset = (int) mapped.getLong(24);
+        if (index_offset == 0 || index_offset + 8L * frame_count > mapped.capacity()){
+            throw new IllegalArgumentException("Recording was not closed properly: " + path);
+        }
+        ints = mapped.asIntBuffer();
+    }
+    /**
+     * Copies frame {@code i} into the given frame.
+     *
+     * @param i     the frame index, from 0 to {@link #getFrameCount()} - 1
+     * @param frame the frame to overwrite
+     * @throws IndexOutOfBoundsException if there is no such frame
+     */
+    public void read(int i, Frame frame){
+        if (i < 0 || i >= frame_count){
+            throw new IndexOutOfBoundsException("Frame " + i + " of " + frame_count);
+        }
+        int offset = (int) mapped.getLong(index_offset + 8 * i);
+        int n = mapped.getInt(offset + 8);
+        frame.reserve(n);
+        frame.clear(mapped.getLong(offset));
+        int base = (offset + FrameRecorder.FRAME_HEADER_SIZE) / 4;
+        ints.get(base, frame.x, 0, n);
+        ints.get(base + n, frame.y, 0, n);
+        ints.get(base + 2 * n, frame.size, 0, n);
+        mapped.get(offset + FrameRecorder.FRAME_HEADER_SIZE + 12 * n, frame.type, 0, n);
+        frame.count = n;
+    }
+    /**
+     * Returns the number of frames in the recording.
+     *
+     * @return the frame count
+     */
+    public int getFrameCount(){
+        return frame_count;
+    }
+    /**
+     * Returns the width of the recorded window.
+     *
+     * @return the window width
+     */
+    public int getWindowSizeX(){
+        return window_size_x;
+    }
+    /**
+     * Returns the height of the recorded window.
+     *
+     * @return the window height
+     */
+    public int getWindowSizeY(){
+        return window_size_y;
+    }
+}
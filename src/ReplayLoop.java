@@ -0,0 +1,120 @@
+import java.util.concurrent.locks.LockSupport;
+/**
+ * Plays a {@link Recording} back on its own thread, publishing frames through a
+ * {@link FrameExchanger} exactly like {@link SimulationLoop} does for a live run.
+ * <p>
+ * Playback advances {@code speed} recorded frames per {@code timer_delay}, so {@code 1} is
+ * real time, {@code 4} is four times faster and {@code 0.25} is slow motion; a negative speed
+ * plays backwards. When the end (or the start) is reached playback wraps around. Frames are
+ * decoded straight into the exchanger's back frame, so playing back allocates nothing.
+ */
+public class ReplayLoop implements Runnable {
+    /** The recording being played. */
+    private final Recording recording;
+    /** Where decoded frames are published. */
+    private final FrameExchanger frames;
+    /** Called after every published frame, typically to schedule a repaint. */
+    private final Runnable onFrame;
+    /** Length of one recorded tick on screen, in nanoseconds. */
+    private final long tick_nanos;
+    /** Recorded frames advanced per tick length. */
+    private final double speed;
+    /** Time slept between position updates: one tick, or less when several frames pass per tick. */
+    private final long park_nanos;
+    /** Current playback position, in (fractional) frames. */
+    private double position;
+    /** Frame most recently published, or -1 before the first. */
+    private int shown = -1;
+    /** Frame requested by {@link #seek(int)}, or -1 when there is none pending. */
+    private volatile int seek_to = -1;
+    /** The thread running the loop, or {@code null} before {@link #start()}. */
+    private Thread thread;
+    /** Cleared by {@link #stop()} to end the loop. */
+    private volatile boolean running;
+    /**
+     * Constructs a replay loop.
+     *
+     * @param recording   the recording to play
+     * @param frames      where decoded frames are published
+     * @param timer_delay length of one recorded tick on screen, in milliseconds
+     * @param speed       recorded frames advanced per {@code timer_delay}
+     * @param start       the frame to start from
+     * @param onFrame     called after every published frame
+     */
+    public ReplayLoop(Recording recording, FrameExchanger frames, int timer_delay, double speed, int start,
+                      Runnable onFrame){
+        this.recording = recording;
+        this.frames = frames;
+        this.tick_nanos = Math.max(timer_delay, 1) * 1_000_000L;
+        this.speed = speed;
+        this.park_nanos = (long) (tick_nanos / Math.max(1, Math.abs(speed)));
+        this.position = Math.max(0, Math.min(start, recording.getFrameCount() - 1));
+        this.onFrame = onFrame;
+    }
+    /**
+     * Starts playback on a new daemon thread.
+     */
+    public void start(){
+        running = true;
+        thread = new Thread(this, "replay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    /**
+     * Stops playback and waits for the thread to finish.
+     */
+    public void stop(){
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+    /**
+     * Jumps to the given frame; playback continues from there.
+     *
+     * @param frame the frame index, from 0 to the recording's frame count - 1
+     */
+    public void seek(int frame){
+        seek_to = Math.max(0, Math.min(frame, recording.getFrameCount() - 1));
+        LockSupport.unpark(thread);
+    }
+    /**
+     * Advances the playback position with the wall clock and publishes a frame whenever it
+     * reaches a new one.
+     */
+    public void run(){
+        int count = recording.getFrameCount();
+        if (count == 0){
+            return;
+        }
+        long previous = System.nanoTime();
+        while (running){
+            long now = System.nanoTime();
+            int target = seek_to;
+            if (target >= 0){
+                seek_to = -1;
+                position = target;
+            }
+            else{
+                position += speed * (now - previous) / tick_nanos;
+                position %= count;
+                if (position < 0){
+                    position += count;
+                }
+            }
+            previous = now;
+            int frame = (int) position;
+            if (frame != shown){
+                recording.read(frame, frames.back());
+                frames.publish();
+                shown = frame;
+                onFrame.run();
+            }
+            LockSupport.parkNanos(park_nanos);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * The plain Java {@link IntegrationKernel}: one body per loop iteration.
+ */
+public class ScalarKernel implements IntegrationKernel {
+    /**
+     * Moves the bodies in {@code [from, to)} by one tick and marks the ones that left the window.
+     *
+     * @param x     the x-coordinate of every body
+     * @param y     the y-coordinate of every body
+     * @param vx    the velocity of every body in the x-direction
+     * @param vy    the velocity of every body in the y-direction
+     * @param dead  set to {@code true} for every body outside the window, {@code false} otherwise
+     * @param from  the first body to move
+     * @param to    one past the last body to move
+     * @param w     the width of the window
+     * @param h     the height of the window
+     * @return the number of bodies marked
+     */
+    public int moveAndMark(double[] x, double[] y, double[] vx, double[] vy, boolean[] dead,
+                           int from, int to, int w, int h){
+        int marked = 0;
+        for (int i = from; i < to; i++){
+            double px = x[i] + vx[i];
+            double py = y[i] + vy[i];
+            x[i] = px;
+            y[i] = py;
+            boolean out = px < 0 || px >= w || py < 0 || py >= h;
+            dead[i] = out;
+            if (out){
+                marked++;
+            }
+        }
+        return marked;
+    }
+}
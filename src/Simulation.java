@@ -0,0 +1,437 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+/**
+ * The simulation state of Massive Motion, independent of any window.
+ * <p>
+ * Holds the bodies, spawns new ones at the edges of the screen and advances them one tick
+ * at a time. {@link MassiveMotion} drives it from a {@link SimulationLoop} and paints it, while
+ * {@link HeadlessRunner} drives it in a tight loop without any AWT.
+ *
+ * @author Paul Gedrimas
+ */
+public class Simulation {
+    /** Store holding all bodies in the simulation. This will depend on the propfile */
+    protected BodyStore bodies;
+    /** Seed the generators were split from; set by the {@code seed} key, or chosen at random. */
+    protected long seed;
+    /** Random number generator for bodies spawned at the top and bottom edges. */
+    protected SplittableRandom rand_x;
+    /** Random number generator for bodies spawned at the left and right edges. */
+    protected SplittableRandom rand_y;
+    /** Width of the screen. */
+    protected int window_size_x;
+    /** Height of the screen. */
+    protected int window_size_y;
+    /** Probability of generating body top or bottom of screen*/
+    protected double gen_x;
+    /** Probability of generating a body on each side of screen */
+    protected double gen_y;
+    /** Velocity of generated bodies. */
+    protected int body_velocity;
+    /** Diameter of each body. */
+    protected int body_size;
+    /** X-coordinate of each star. */
+    protected double[] star_position_x;
+    /** Y-coordinate of each star. */
+    protected double[] star_position_y;
+    /** Diameter of each star. */
+    protected int[] star_size;
+    /** Mass of each generated body, in kilograms. */
+    protected double body_mass;
+    /** Mass of each star, in kilograms. */
+    protected double[] star_mass;
+    /** Initial x-velocity of each star. */
+    protected double[] star_velocity_x;
+    /** Initial y-velocity of each star. */
+    protected double[] star_velocity_y;
+    /** Gravity pass run every tick, or {@code null} when gravity is off. */
+    protected GravityEngine gravity;
+    /** Collision pass run every tick, or {@code null} when collisions are off. */
+    protected CollisionEngine collisions;
+    /** Scratch copy of the bodies shared by the gravity and collision passes. */
+    protected BodyBuffer buffer;
+    /** Pool recycling culled bodies for the list stores, or {@code null} when pooling is off. */
+    protected BodyPool bodyPool;
+    /** Pool running the parallel move pass, or {@code null} to step serially. */
+    protected ForkJoinPool pool;
+    /** Number of bodies each parallel task moves without splitting further. */
+    protected int parallel_grain;
+    /** Number of ticks run so far. */
+    protected long tick_count;
+    /** Tick, spawn and cull instrumentation, or {@code null} when metrics are off. */
+    protected SimulationMetrics metrics;
+    /** Writes every tick to the file named by the {@code record} key, or {@code null} when not recording. */
+    protected FrameRecorder recorder;
+    /** Type of list implementation used (arraylist, single, double, dummyhead, unrolled, ring, tree, adaptive, soa, offheap). */
+    protected String list; //arraylist, single, double, dummyhead, unrolled, ring, tree, adaptive, soa, offheap
+
+    /**
+     * Constructs a {@code Simulation} from an already loaded configuration.
+     *
+     * @param config the configuration to read the simulation parameters from
+     */
+    public Simulation(ConfigReader config) {
+        list = config.get("list");
+        if (list.equals("soa")){
+            bodies = new SoaBodyStore(16, IntegrationKernel.create(config.get("kernel", "scalar")));
+        }
+        else if (list.equals("offheap")){
+            bodies = new OffHeapBodyStore(config.getInt("offheap_capacity", 4096));
+        }
+        else{
+            int body_pool_size = config.getInt("body_pool_size", 4096);
+            if (body_pool_size > 0){
+                bodyPool = new BodyPool(body_pool_size);
+            }
+            List<MotionBody> backing = list.equals("arraylist")
+                    ? new ArrayList<>(config.getInt("list_capacity", 10),
+                            config.getDouble("list_growth", 2),
+                            config.getDouble("list_shrink", 0.25))
+                    : createList(list);
+            bodies = new ListBodyStore(backing, bodyPool);
+        }
+
+        window_size_x = config.getInt("window_size_x");
+        window_size_y = config.getInt("window_size_y");
+        gen_x = config.getDouble("gen_x");
+        gen_y = config.getDouble("gen_y");
+        body_size = config.getInt("body_size");
+        body_velocity = config.getInt("body_velocity");
+        // one star per star_position_x entry; the other star keys list one value each or one for all
+        star_position_x = config.getDoubles("star_position_x");
+        int stars = star_position_x.length;
+        star_position_y = config.getDoubles("star_position_y", stars);
+        star_size = config.getInts("star_size", stars);
+        body_mass = config.getDouble("body_mass", 1E21);
+        star_mass = config.getDoubles("star_mass", stars, 2E29);
+        star_velocity_x = config.getDoubles("star_velocity_x", stars, 0);
+        star_velocity_y = config.getDoubles("star_velocity_y", stars, 0);
+        gravity = GravityEngine.create(config.get("gravity", "none"),
+                config.getDouble("theta", 0.5),
+                config.getDouble("distance_scale", 1E9),
+                config.getDouble("time_scale", 1.8E6),
+                config.getDouble("softening", body_size));
+        if (config.get("collisions", "false").equals("true")){
+            collisions = new CollisionEngine(body_size, config.get("merge_bodies", "false").equals("true"));
+        }
+        buffer = new BodyBuffer();
+        int parallelism = config.getInt("parallelism", 1);
+        if (parallelism > 1){
+            pool = new ForkJoinPool(parallelism);
+        }
+        parallel_grain = config.getInt("parallel_grain", 4096);
+        SimulationEvents.enabled = config.get("jfr_events", "false").equals("true");
+        if (config.get("metrics", "false").equals("true")){
+            metrics = new SimulationMetrics(list, config.getInt("timer_delay", 75));
+            metrics.register();
+        }
+        String record = config.get("record");
+        if (record != null){
+            try {
+                recorder = new FrameRecorder(Path.of(record.trim()), window_size_x, window_size_y);
+            }
+            catch (IOException e){
+                throw new UncheckedIOException("Couldn't create recording " + record, e);
+            }
+        }
+        String seedKey = config.get("seed");
+        seed = seedKey != null ? Long.parseLong(seedKey.trim()) : new SplittableRandom().nextLong();
+        SplittableRandom root = new SplittableRandom(seed);
+        rand_x = root.split();
+        rand_y = root.split();
+
+        //Initial stars are generated
+        GenerateStar();
+    }
+    /**
+     * Creates an empty list of the implementation named by the {@code list} key.
+     *
+     * @param list the implementation name (arraylist, single, double, dummyhead, unrolled, ring, tree, adaptive)
+     * @param <T>  the type of elements held in the list
+     * @return a new empty list
+     * @throws IllegalArgumentException if the name is not a known list implementation
+     */
+    public static <T> List<T> createList(String list){
+        switch (list){
+            case "arraylist":
+                return new ArrayList<>();
+            case "single":
+                return new LinkedList<>();
+            case "double":
+                return new DoublyLinkedList<>();
+            case "dummyhead":
+                return new DummyHeadLinkedList<>();
+            case "unrolled":
+                return new UnrolledLinkedList<>();
+            case "ring":
+                return new CircularArrayList<>();
+            case "tree":
+                return new TreeList<>();
+            case "adaptive":
+                return new AdaptiveList<>();
+            default:
+                throw new IllegalArgumentException("Unknown list implementation: " + list);
+        }
+    }
+    /**
+     * Adds every configured star to the simulation.
+     */
+    public void GenerateStar(){
+        for (int i = 0; i < star_position_x.length; i++){
+            bodies.addStar(star_position_x[i], star_position_y[i], star_velocity_x[i], star_velocity_y[i],
+                    star_size[i], star_mass[i]);
+        }
+    }
+    /**
+     * Randomly generates a new body from one edge of the screen depending on the axis.
+     * <p>
+     * Each axis draws from its own generator split off the seed, so the bodies spawned by one
+     * axis never depend on how many numbers the other used, and the two could run on separate
+     * threads without sharing any state.
+     *
+     * @param isGenX if true, generate along top or bottom; otherwise, on either side.
+     */
+    private void bodyGenerator(boolean isGenX){
+        double gen;
+        SplittableRandom rand;
+        int x1, y1, vx1, vy1;
+        if (isGenX){
+            gen = gen_x;
+            rand = rand_x;
+        }
+        else{
+            gen = gen_y;
+            rand = rand_y;
+        }
+
+        if (rand.nextDouble() <= gen){
+            if (rand.nextDouble() < 0.5){
+                if (isGenX){
+                    x1 = window_size_x/2;
+                    y1 = 0;
+                }
+                else
+                {
+                    x1 = 0;
+                    y1 = window_size_y/2;
+                }
+            }
+            else{
+                if (isGenX){
+                    x1 = window_size_x/2;
+                    y1 = window_size_y;
+                }
+                else{
+                    x1 = window_size_x;
+                    y1 = window_size_y/2;
+                }
+            }
+            // velocity is randomly generated by multiplying twice then subtracting the original velocity to make
+            // either positive or negative value
+            vx1 = (int) (rand.nextDouble() * (body_velocity*2)+1) - body_velocity;
+            while (vx1 == 0){
+                vx1 = (int) (rand.nextDouble() * (body_velocity*2)+1) - body_velocity;
+            }
+            vy1 = (int) (rand.nextDouble() * (body_velocity*2)+1) - body_velocity;
+            while (vy1 == 0){
+                vy1 = (int) (rand.nextDouble() * (body_velocity*2)+1) - body_velocity;
+            }
+            //celestial object created and added to chosen body store.
+            bodies.add(x1, y1, vx1, vy1, body_size, body_mass);
+        }
+    }
+
+    /**
+     * Advances the simulation by one tick: spawns new bodies, applies gravity and collisions
+     * if enabled, moves every body and removes the ones that left the screen.
+     */
+    public void tick() {
+        long start = metrics != null ? System.nanoTime() : 0;
+        boolean events = SimulationEvents.enabled;
+        TickEvent tickEvent = events ? new TickEvent() : null;
+        if (events){
+            tickEvent.begin();
+        }
+        int before = bodies.size();
+
+        //random generator for celestial bodies
+        GenerateEvent generateEvent = events ? new GenerateEvent() : null;
+        if (events){
+            generateEvent.begin();
+        }
+        bodyGenerator(true);
+        bodyGenerator(false);
+        if (events){
+            commit(generateEvent);
+        }
+        long generated = metrics != null ? System.nanoTime() : 0;
+        int alive = bodies.size();
+
+        //kick every velocity by one tick of gravity, then absorb and merge touching bodies
+        if (gravity != null || collisions != null){
+            bodies.read(buffer);
+            if (gravity != null){
+                GravityEvent gravityEvent = events ? new GravityEvent() : null;
+                if (events){
+                    gravityEvent.begin();
+                }
+                gravity.apply(buffer);
+                if (events){
+                    commit(gravityEvent);
+                }
+            }
+            if (collisions != null){
+                CollisionEvent collisionEvent = events ? new CollisionEvent() : null;
+                if (events){
+                    collisionEvent.begin();
+                }
+                collisions.apply(buffer);
+                if (events){
+                    commit(collisionEvent);
+                }
+            }
+            bodies.write(buffer);
+        }
+
+        //move each body, then cull every body that left the screen
+        MoveCullEvent moveEvent = events ? new MoveCullEvent() : null;
+        if (events){
+            moveEvent.begin();
+        }
+        if (pool != null){
+            bodies.step(window_size_x, window_size_y, pool, parallel_grain);
+        }
+        else{
+            bodies.step(window_size_x, window_size_y);
+        }
+        if (events){
+            commit(moveEvent);
+        }
+        tick_count++;
+
+        if (metrics != null){
+            int after = bodies.size();
+            metrics.recordTick(System.nanoTime() - start, generated - start, alive - before, alive - after, after);
+        }
+        if (events){
+            commit(tickEvent);
+        }
+        if (recorder != null){
+            record();
+        }
+    }
+    /**
+     * Appends the bodies as they stand after this tick to the recording.
+     */
+    private void record(){
+        recorder.begin(tick_count);
+        bodies.forEach(recorder);
+        try {
+            recorder.end();
+        }
+        catch (IOException e){
+            throw new UncheckedIOException("Couldn't write recording", e);
+        }
+    }
+    /**
+     * Finishes the recording, if there is one. The simulation must not be ticked afterwards.
+     */
+    public void close(){
+        if (recorder != null){
+            try {
+                recorder.close();
+            }
+            catch (IOException e){
+                throw new UncheckedIOException("Couldn't finish recording", e);
+            }
+            recorder = null;
+        }
+    }
+    /**
+     * Fills in the common fields of a phase event and commits it.
+     */
+    private void commit(PhaseEvent event){
+        event.end();
+        if (event.shouldCommit()){
+            event.bodyCount = bodies.size();
+            event.list = list;
+            event.commit();
+        }
+    }
+    /**
+     * Returns the number of ticks run so far.
+     *
+     * @return the tick count
+     */
+    public long getTick() {
+        return tick_count;
+    }
+    /**
+     * Returns the instrumentation for this simulation.
+     *
+     * @return the metrics, or {@code null} when the {@code metrics} key is not {@code true}
+     */
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+    /**
+     * Returns the store holding every body.
+     *
+     * @return the body store
+     */
+    public BodyStore getBodies() {
+        return bodies;
+    }
+    /**
+     * Returns the pool recycling culled bodies.
+     *
+     * @return the body pool, or {@code null} if pooling is off or the store does not use objects
+     */
+    public BodyPool getBodyPool() {
+        return bodyPool;
+    }
+    /**
+     * Returns the seed the body generators were split from; passing it back as the
+     * {@code seed} key reproduces this run's bodies.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+    /**
+     * Returns the recorder writing this run, or {@code null} when not recording.
+     *
+     * @return the recorder
+     */
+    public FrameRecorder getRecorder() {
+        return recorder;
+    }
+    /**
+     * Returns the name of the list implementation in use.
+     *
+     * @return the value of the {@code list} key
+     */
+    public String getList() {
+        return list;
+    }
+    /**
+     * Returns the width of the simulated screen.
+     *
+     * @return the window width
+     */
+    public int getWindowSizeX() {
+        return window_size_x;
+    }
+    /**
+     * Returns the height of the simulated screen.
+     *
+     * @return the window height
+     */
+    public int getWindowSizeY() {
+        return window_size_y;
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Switch for the simulation's Java Flight Recorder events ({@link TickEvent},
+ * {@link GenerateEvent}, {@link GravityEvent}, {@link MoveCullEvent}, {@link PaintEvent}
+ * and {@link ListResizeEvent}).
+ * <p>
+ * Set from the {@code jfr_events} config key. While it is off, the instrumented code does
+ * not even create the event objects, so a run without it pays one static field read per phase.
+ * While it is on, events are only written when a flight recording is running, e.g. with
+ * {@code java -XX:StartFlightRecording=filename=run.jfr MassiveMotion MassiveMotion.txt}.
+ */
+public class SimulationEvents {
+    /** Whether the simulation emits its JFR events. */
+    public static volatile boolean enabled = false;
+}
@@ -0,0 +1,100 @@
+import java.util.concurrent.locks.LockSupport;
+/**
+ * Runs a {@link Simulation} on its own thread at a fixed timestep.
+ * <p>
+ * Real time is accumulated and the simulation is ticked once for every {@code timer_delay}
+ * milliseconds that have passed, so simulated time keeps pace with the wall clock no matter
+ * how long painting takes. After each batch of ticks a snapshot is published through a
+ * {@link FrameExchanger} and the listener is told to repaint; if the Swing thread is still busy,
+ * older snapshots are simply replaced, which drops frames instead of slowing the simulation.
+ */
+public class SimulationLoop implements Runnable {
+    /** Most ticks run in one batch before giving up on catching up with the wall clock. */
+    private static final int MAX_CATCH_UP = 10;
+
+    /** The simulation to advance; only this loop's thread touches it once started. */
+    private final Simulation simulation;
+    /** Where completed snapshots are published. */
+    private final FrameExchanger frames;
+    /** Called after every published snapshot, typically to schedule a repaint. */
+    private final Runnable onFrame;
+    /** Length of one tick, in nanoseconds. */
+    private final long tick_nanos;
+    /** The thread running the loop, or {@code null} before {@link #start()}. */
+    private Thread thread;
+    /** Cleared by {@link #stop()} to end the loop. */
+    private volatile boolean running;
+    /**
+     * Constructs a loop.
+     *
+     * @param simulation  the simulation to advance
+     * @param frames      where completed snapshots are published
+     * @param timer_delay length of one tick, in milliseconds
+     * @param onFrame     called after every published snapshot
+     */
+    public SimulationLoop(Simulation simulation, FrameExchanger frames, int timer_delay, Runnable onFrame){
+        this.simulation = simulation;
+        this.frames = frames;
+        this.tick_nanos = Math.max(timer_delay, 1) * 1_000_000L;
+        this.onFrame = onFrame;
+    }
+    /**
+     * Starts the loop on a new daemon thread.
+     */
+    public void start(){
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    /**
+     * Stops the loop and waits for its current batch of ticks to finish.
+     */
+    public void stop(){
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+    /**
+     * Ticks whenever a full timestep has accumulated and publishes a snapshot after each batch.
+     */
+    public void run(){
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        publish();
+        while (running){
+            long now = System.nanoTime();
+            accumulator += now - previous;
+            previous = now;
+            if (accumulator > MAX_CATCH_UP * tick_nanos){
+                // the simulation itself is slower than real time; don't try to catch up forever
+                accumulator = MAX_CATCH_UP * tick_nanos;
+            }
+            boolean ticked = false;
+            while (accumulator >= tick_nanos){
+                simulation.tick();
+                accumulator -= tick_nanos;
+                ticked = true;
+            }
+            if (ticked){
+                publish();
+            }
+            LockSupport.parkNanos(tick_nanos - accumulator);
+        }
+    }
+    /**
+     * Copies the current bodies into the back frame and publishes it.
+     */
+    private void publish(){
+        Frame frame = frames.back();
+        frame.clear(simulation.getTick());
+        simulation.getBodies().forEach(frame);
+        frames.publish();
+        onFrame.run();
+    }
+}
@@ -0,0 +1,165 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.ObjectName;
+/**
+ * Per-tick counters and latency histograms for a running simulation, published as a
+ * platform MBean so they can be watched live in JConsole or scraped over JMX.
+ * <p>
+ * The simulation thread records tick and spawn timings and counts, the Swing thread
+ * records paint timings, and the JMX thread reads everything; all fields are atomic or
+ * volatile, so no locks are taken on the hot paths.
+ */
+public class SimulationMetrics implements SimulationMetricsMBean {
+    /** Name the MBean is registered under. */
+    public static final String OBJECT_NAME = "MassiveMotion:type=SimulationMetrics";
+
+    /** Name of the list implementation in use. */
+    private final String list;
+    /** Tick duration above which a tick counts as an overrun, in nanoseconds. */
+    private final long tick_budget;
+    /** Whole tick durations. */
+    private final LatencyHistogram tickTimes = new LatencyHistogram();
+    /** Time spent spawning bodies in each tick. */
+    private final LatencyHistogram generateTimes = new LatencyHistogram();
+    /** Paint durations. */
+    private final LatencyHistogram paintTimes = new LatencyHistogram();
+    /** Number of ticks longer than {@link #tick_budget}. */
+    private final AtomicLong overruns = new AtomicLong();
+    /** Total bodies spawned. */
+    private final AtomicLong spawned = new AtomicLong();
+    /** Total bodies culled. */
+    private final AtomicLong culled = new AtomicLong();
+    /** Body count after the last tick. */
+    private volatile int bodyCount;
+    /** Source of the dropped-frame count, or {@code null} when nothing is painting. */
+    private volatile FrameExchanger frames;
+    /**
+     * Constructs a metrics holder.
+     *
+     * @param list        the name of the list implementation in use
+     * @param timer_delay the tick length in milliseconds; longer ticks count as overruns
+     */
+    public SimulationMetrics(String list, int timer_delay){
+        this.list = list;
+        this.tick_budget = timer_delay * 1_000_000L;
+    }
+    /**
+     * Registers this object with the platform MBean server. Failures are reported and
+     * otherwise ignored, since metrics must never stop the simulation.
+     */
+    public void register(){
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        }
+        catch (JMException e) {
+            System.err.println("Couldn't register metrics MBean: " + e.getMessage());
+        }
+    }
+    /**
+     * Records one finished tick.
+     *
+     * @param tickNanos     the whole tick duration
+     * @param generateNanos the part of the tick spent spawning bodies
+     * @param spawnedBodies the number of bodies spawned in the tick
+     * @param culledBodies  the number of bodies culled in the tick
+     * @param bodies        the number of bodies after the tick
+     */
+    public void recordTick(long tickNanos, long generateNanos, int spawnedBodies, int culledBodies, int bodies){
+        tickTimes.record(tickNanos);
+        generateTimes.record(generateNanos);
+        if (tickNanos > tick_budget){
+            overruns.incrementAndGet();
+        }
+        spawned.addAndGet(spawnedBodies);
+        culled.addAndGet(culledBodies);
+        bodyCount = bodies;
+    }
+    /**
+     * Records one paint.
+     *
+     * @param nanos the paint duration
+     */
+    public void recordPaint(long nanos){
+        paintTimes.record(nanos);
+    }
+    /**
+     * Sets where the dropped-frame count is read from.
+     *
+     * @param frames the exchanger between the simulation and Swing threads
+     */
+    public void setFrames(FrameExchanger frames){
+        this.frames = frames;
+    }
+
+    public String getList(){
+        return list;
+    }
+
+    public int getBodyCount(){
+        return bodyCount;
+    }
+
+    public long getTickCount(){
+        return tickTimes.getCount();
+    }
+
+    public double getTickMeanMicros(){
+        return tickTimes.getMean() / 1e3;
+    }
+
+    public double getTickP50Micros(){
+        return tickTimes.percentile(0.50) / 1e3;
+    }
+
+    public double getTickP99Micros(){
+        return tickTimes.percentile(0.99) / 1e3;
+    }
+
+    public double getTickMaxMicros(){
+        return tickTimes.getMax() / 1e3;
+    }
+
+    public double getGenerateP50Micros(){
+        return generateTimes.percentile(0.50) / 1e3;
+    }
+
+    public double getGenerateP99Micros(){
+        return generateTimes.percentile(0.99) / 1e3;
+    }
+
+    public long getPaintCount(){
+        return paintTimes.getCount();
+    }
+
+    public double getPaintP50Micros(){
+        return paintTimes.percentile(0.50) / 1e3;
+    }
+
+    public double getPaintP99Micros(){
+        return paintTimes.percentile(0.99) / 1e3;
+    }
+
+    public long getFrameOverruns(){
+        return overruns.get();
+    }
+
+    public long getDroppedFrames(){
+        FrameExchanger source = frames;
+        return source == null ? 0 : source.getDropped();
+    }
+
+    public long getSpawned(){
+        return spawned.get();
+    }
+
+    public long getCulled(){
+        return culled.get();
+    }
+
+    public void resetHistograms(){
+        tickTimes.reset();
+        generateTimes.reset();
+        paintTimes.reset();
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Management interface of {@link SimulationMetrics}, as seen in JConsole or any JMX client
+ * under {@code MassiveMotion:type=SimulationMetrics}. Durations are in microseconds.
+ */
+public interface SimulationMetricsMBean {
+    /** @return the name of the list implementation in use */
+    public String getList();
+    /** @return the number of bodies after the last tick */
+    public int getBodyCount();
+    /** @return the number of ticks run */
+    public long getTickCount();
+    /** @return the mean tick duration */
+    public double getTickMeanMicros();
+    /** @return the median tick duration */
+    public double getTickP50Micros();
+    /** @return the 99th percentile tick duration */
+    public double getTickP99Micros();
+    /** @return the longest tick */
+    public double getTickMaxMicros();
+    /** @return the median time spent spawning bodies per tick */
+    public double getGenerateP50Micros();
+    /** @return the 99th percentile time spent spawning bodies per tick */
+    public double getGenerateP99Micros();
+    /** @return the number of frames painted */
+    public long getPaintCount();
+    /** @return the median paint duration */
+    public double getPaintP50Micros();
+    /** @return the 99th percentile paint duration */
+    public double getPaintP99Micros();
+    /** @return the number of ticks that took longer than timer_delay */
+    public long getFrameOverruns();
+    /** @return the number of published frames replaced before they were painted */
+    public long getDroppedFrames();
+    /** @return the total number of bodies spawned */
+    public long getSpawned();
+    /** @return the total number of bodies removed for leaving the screen */
+    public long getCulled();
+    /**
+     * Clears the latency histograms so percentiles reflect only what happens from now on.
+     */
+    public void resetHistograms();
+}
@@ -0,0 +1,266 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * A structure-of-arrays {@link BodyStore}.
+ * <p>
+ * Instead of one object per body, positions, velocities, sizes and masses live in parallel
+ * primitive arrays, and body {@code i} is the i-th slot of every array. The move pass
+ * is an {@link IntegrationKernel} looping over contiguous {@code double[]}s with no pointer
+ * chasing or virtual calls per body, either plain Java or explicit SIMD. Removal swaps the
+ * last body into the freed slot, so culling never shifts the arrays.
+ */
+public class SoaBodyStore implements BodyStore {
+    /** The x-coordinate of every body. */
+    private double[] x;
+    /** The y-coordinate of every body. */
+    private double[] y;
+    /** The velocity of every body in the x-direction. */
+    private double[] vx;
+    /** The velocity of every body in the y-direction. */
+    private double[] vy;
+    /** The mass of every body. */
+    private double[] mass;
+    /** The diameter of every body. */
+    private int[] size;
+    /** Whether each body is a {@link Body#MOTION} body or a {@link Body#STAR}. */
+    private byte[] type;
+    /** The number of bodies stored; slots at or past this index are unused. */
+    private int count;
+    /** Out-of-bounds marks written by the move pass. */
+    private boolean[] dead = new boolean[16];
+    /** The move-and-mark loop. */
+    private IntegrationKernel kernel;
+    /** Width of the window during the current parallel step. */
+    private int bound_x;
+    /** Height of the window during the current parallel step. */
+    private int bound_y;
+    /** Number of bodies the range tasks of the current parallel step marked. */
+    private final AtomicInteger marked = new AtomicInteger();
+    /**
+     * Constructs an empty store with an initial capacity of 16 bodies.
+     */
+    public SoaBodyStore(){
+        this(16, new ScalarKernel());
+    }
+    /**
+     * Constructs an empty store with the given initial capacity and move kernel.
+     *
+     * @param capacity the number of bodies the arrays can hold before growing
+     * @param kernel   the loop that moves bodies and marks the ones to cull
+     */
+    public SoaBodyStore(int capacity, IntegrationKernel kernel){
+        this.kernel = kernel;
+        capacity = Math.max(capacity, 1);
+        x = new double[capacity];
+        y = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        mass = new double[capacity];
+        size = new int[capacity];
+        type = new byte[capacity];
+        count = 0;
+    }
+    /**
+     * Adds a star.
+     *
+     * @param x         the x-coordinate of the star
+     * @param y         the y-coordinate of the star
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
+     * @param body_size the size (diameter) of the star
+     * @param mass      the mass of the star
+     */
+    public void addStar(double x, double y, double vx, double vy, int body_size, double mass){
+        append(x, y, vx, vy, body_size, mass, Body.STAR);
+    }
+    /**
+     * Adds a moving body.
+     *
+     * @param x         the initial x-coordinate of the body
+     * @param y         the initial y-coordinate of the body
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
+     * @param body_size the diameter of the body when drawn
+     * @param mass      the mass of the body
+     */
+    public void add(double x, double y, double vx, double vy, int body_size, double mass){
+        append(x, y, vx, vy, body_size, mass, Body.MOTION);
+    }
+    /**
+     * Writes a body into the next free slot, growing the arrays if they are full.
+     */
+    private void append(double x, double y, double vx, double vy, int body_size, double mass, byte type){
+        if (count == this.x.length){
+            grow();
+        }
+        this.x[count] = x;
+        this.y[count] = y;
+        this.vx[count] = vx;
+        this.vy[count] = vy;
+        this.mass[count] = mass;
+        this.size[count] = body_size;
+        this.type[count] = type;
+        count++;
+    }
+    /**
+     * Doubles the capacity of every array.
+     * Emits a {@link ListResizeEvent} when JFR events are enabled.
+     */
+    private void grow(){
+        ListResizeEvent event = SimulationEvents.enabled ? new ListResizeEvent() : null;
+        if (event != null){
+            event.begin();
+        }
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        size = Arrays.copyOf(size, capacity);
+        type = Arrays.copyOf(type, capacity);
+        if (event != null){
+            event.bodyCount = count;
+            event.list = "soa";
+            event.oldCapacity = capacity / 2;
+            event.newCapacity = capacity;
+            event.allocated = (5L * 8 + 4 + 1) * capacity;
+            event.commit();
+        }
+    }
+    /**
+     * Moves every body and marks the ones outside the window with the kernel, then removes
+     * them by swapping the last body into their slot.
+     * <p>
+     * Stars go through the same loop as every other body, so there is no type check.
+     *
+     * @param window_size_x the width of the window
+     * @param window_size_y the height of the window
+     */
+    public void step(int window_size_x, int window_size_y){
+        ensureMarks();
+        if (kernel.moveAndMark(x, y, vx, vy, dead, 0, count, window_size_x, window_size_y) > 0){
+            removeMarked(dead);
+        }
+    }
+    /**
+     * Moves the bodies and marks the ones outside the window on the pool, then removes the
+     * marked ones, if there are any, with the same swap-with-last pass as {@link #step(int, int)}.
+     *
+     * @param window_size_x the width of the window
+     * @param window_size_y the height of the window
+     * @param pool          the pool to run the move pass on
+     * @param grain         the number of bodies each fork/join task handles without splitting
+     */
+    public void step(int window_size_x, int window_size_y, ForkJoinPool pool, int grain){
+        ensureMarks();
+        bound_x = window_size_x;
+        bound_y = window_size_y;
+        marked.set(0);
+        pool.invoke(new RangeTask(0, count, grain, this::moveRange));
+        if (marked.get() > 0){
+            removeMarked(dead);
+        }
+    }
+    /**
+     * Moves the bodies in {@code [from, to)}, marks the ones that left the window and adds
+     * them to {@link #marked}.
+     */
+    private void moveRange(int from, int to){
+        int n = kernel.moveAndMark(x, y, vx, vy, dead, from, to, bound_x, bound_y);
+        if (n > 0){
+            marked.addAndGet(n);
+        }
+    }
+    /**
+     * Makes sure there is a dead mark for every body.
+     */
+    private void ensureMarks(){
+        if (dead.length < count){
+            dead = new boolean[Math.max(count, dead.length * 2)];
+        }
+    }
+    /**
+     * Removes every body whose flag is set, swapping the last body (and its flag) into each freed slot.
+     *
+     * @param marks one flag per body; modified by the swaps
+     */
+    private void removeMarked(boolean[] marks){
+        int n = count;
+        int i = 0;
+        while (i < n){
+            if (marks[i]){
+                n--;
+                moveSlot(n, i);
+                marks[i] = marks[n];
+            }
+            else{
+                i++;
+            }
+        }
+        count = n;
+    }
+    /**
+     * Copies the body in slot {@code from} into slot {@code to}.
+     */
+    private void moveSlot(int from, int to){
+        x[to] = x[from];
+        y[to] = y[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        mass[to] = mass[from];
+        size[to] = size[from];
+        type[to] = type[from];
+    }
+    /**
+     * Copies every body into the buffer with one array copy per field.
+     *
+     * @param buffer the buffer to fill
+     */
+    public void read(BodyBuffer buffer){
+        buffer.reset(count);
+        System.arraycopy(x, 0, buffer.x, 0, count);
+        System.arraycopy(y, 0, buffer.y, 0, count);
+        System.arraycopy(vx, 0, buffer.vx, 0, count);
+        System.arraycopy(vy, 0, buffer.vy, 0, count);
+        System.arraycopy(mass, 0, buffer.mass, 0, count);
+        System.arraycopy(size, 0, buffer.size, 0, count);
+        System.arraycopy(type, 0, buffer.type, 0, count);
+    }
+    /**
+     * Copies the buffer back with one array copy per field, then removes the bodies marked
+     * dead in it with the same swap-with-last pass as {@link #step(int, int)}.
+     *
+     * @param buffer the buffer previously filled by {@link #read(BodyBuffer)}
+     */
+    public void write(BodyBuffer buffer){
+        System.arraycopy(buffer.x, 0, x, 0, count);
+        System.arraycopy(buffer.y, 0, y, 0, count);
+        System.arraycopy(buffer.vx, 0, vx, 0, count);
+        System.arraycopy(buffer.vy, 0, vy, 0, count);
+        System.arraycopy(buffer.mass, 0, mass, 0, count);
+        System.arraycopy(buffer.size, 0, size, 0, count);
+        if (buffer.removed > 0){
+            removeMarked(buffer.dead);
+        }
+    }
+    /**
+     * Hands every body to the visitor in store order.
+     *
+     * @param visitor the visitor to call for each body
+     */
+    public void forEach(BodyVisitor visitor){
+        for (int i = 0; i < count; i++){
+            visitor.visit(x[i], y[i], size[i], type[i]);
+        }
+    }
+    /**
+     * Returns the number of bodies stored.
+     *
+     * @return the number of bodies
+     */
+    public int size(){
+        return count;
+    }
+}
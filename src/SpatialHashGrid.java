@@ -0,0 +1,91 @@
+import java.util.Arrays;
+/**
+ * A uniform grid of square cells, hashed into a fixed number of buckets, holding body indices.
+ * <p>
+ * Every inserted point goes into the bucket of the cell that contains it. The buckets are
+ * singly linked lists threaded through two int arrays, {@code head} (first entry per bucket)
+ * and {@code next} (following entry per body), so rebuilding the grid each tick costs one
+ * array fill and one pass over the bodies, and allocates nothing once the arrays are big enough.
+ * <p>
+ * Hashing means the grid is not limited to the window, but two distant cells can share a
+ * bucket. Queries therefore return a superset of the bodies in a cell, and callers are
+ * expected to run their own exact test on each candidate.
+ */
+public class SpatialHashGrid {
+    /** Marks the end of a bucket chain. */
+    public static final int END = -1;
+
+    /** First body index in each bucket, or {@link #END}. */
+    private int[] head = new int[16];
+    /** Next body index in the same bucket, or {@link #END}, per body. */
+    private int[] next = new int[16];
+    /** {@code head.length - 1}; the bucket count is always a power of two. */
+    private int mask = 15;
+    /** The side of one cell, in pixels. */
+    private double cell_size = 1;
+    /**
+     * Empties the grid and prepares it for up to {@code n} bodies in cells of the given size.
+     *
+     * @param n         the largest body index that will be inserted, plus one
+     * @param cell_size the side of one cell, in pixels
+     */
+    public void clear(int n, double cell_size){
+        this.cell_size = cell_size;
+        int buckets = Integer.highestOneBit(Math.max(n, 8) * 2 - 1) << 1;
+        if (buckets > head.length){
+            head = new int[buckets];
+        }
+        mask = buckets - 1;
+        Arrays.fill(head, 0, mask + 1, END);
+        if (n > next.length){
+            next = new int[Math.max(n, next.length * 2)];
+        }
+    }
+    /**
+     * Inserts body {@code i} at the given point.
+     *
+     * @param i the body index
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     */
+    public void insert(int i, double x, double y){
+        int bucket = bucket(cell(x), cell(y));
+        next[i] = head[bucket];
+        head[bucket] = i;
+    }
+    /**
+     * Returns the cell coordinate that contains the given pixel coordinate.
+     *
+     * @param v an x- or y-coordinate
+     * @return the column or row of the cell
+     */
+    public int cell(double v){
+        return (int) Math.floor(v / cell_size);
+    }
+    /**
+     * Returns the first body in the bucket of the given cell.
+     *
+     * @param cx the column of the cell
+     * @param cy the row of the cell
+     * @return a body index, or {@link #END} if the bucket is empty
+     */
+    public int first(int cx, int cy){
+        return head[bucket(cx, cy)];
+    }
+    /**
+     * Returns the body after {@code i} in the same bucket.
+     *
+     * @param i a body index returned by {@link #first(int, int)} or this method
+     * @return the next body index, or {@link #END}
+     */
+    public int next(int i){
+        return next[i];
+    }
+    /**
+     * Hashes a cell to its bucket.
+     */
+    private int bucket(int cx, int cy){
+        int h = cx * 0x9E3779B1 ^ cy * 0x85EBCA6B;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -1,18 +1,23 @@
 import java.awt.*;
 /**
  * Represents a star in the simulation.
- * A {@code Star} is a type of {@link Body} that is drawn in red and does not move.
+ * A {@code Star} is a type of {@link Body} that is drawn in red. It starts with the
+ * {@code star_velocity_x}/{@code star_velocity_y} velocity from the config and, when
+ * gravity is enabled, is pulled by every other body like any other mass.
  */
 public class Star extends Body{
     /**
-     * Constructs a {@code Star} with a specified position and size.
+     * Constructs a {@code Star} with a specified position, velocity, size and mass.
      *
      * @param x         the x-coordinate of the star
      * @param y         the y-coordinate of the star
+     * @param vx        the velocity in the x-direction
+     * @param vy        the velocity in the y-direction
      * @param body_size the size (diameter) of the star
+     * @param mass      the mass of the star
      */
-    public Star (int x, int y, int body_size){
-        super(x, y, body_size);
+    public Star (double x, double y, double vx, double vy, int body_size, double mass){
+        super(x, y, vx, vy, body_size, mass);
     }
     /**
      * Paints the star on the screen using red color.
@@ -26,10 +31,19 @@ public class Star extends Body{
 
     }
     /**
-     * The star does not move. This method is intentionally left empty
+     * Returns {@link Body#STAR}.
+     *
+     * @return the type tag of a star
+     */
+    public byte getType(){
+        return STAR;
+    }
+    /**
+     * Moves the star by its velocity, which is zero unless configured or changed by gravity.
      */
     public void move(){
-        //in case it would ever need to move
+        x += vx;
+        y += vy;
     }
 
 }
@@ -0,0 +1,11 @@
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+/**
+ * JFR event spanning one whole {@link Simulation#tick()}.
+ */
+@Name("massivemotion.Tick")
+@Label("Tick")
+@Description("One simulation tick: spawn, gravity, move and cull")
+public class TickEvent extends PhaseEvent {
+}
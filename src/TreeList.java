@@ -0,0 +1,408 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+/**
+ * A generic list stored as an order-statistic AVL tree.
+ * <p>
+ * Elements sit in the tree in list order (an in-order walk visits them from index 0
+ * upwards), and every node records the size of its subtree. Finding index {@code i} then
+ * only needs the left subtree sizes along one root-to-leaf path, and the tree is kept
+ * height-balanced by rotations, so {@code get}, {@code add(index, element)} and
+ * {@code remove(index)} are all O(log n) no matter where in the list they land.
+ *
+ * @param <T> the type of elements stored in the list
+ */
+public class TreeList<T> implements List<T>{
+    /**
+     * A tree node holding one element.
+     *
+     * @param <T> the type of data stored in the node
+     */
+    private static class tNode<T>{
+        /** The element stored in this node. */
+        private T data;
+        /** Subtree of the elements before this one. */
+        private tNode<T> left;
+        /** Subtree of the elements after this one. */
+        private tNode<T> right;
+        /** Height of the subtree rooted here; a leaf has height 1. */
+        private int height;
+        /** Number of elements in the subtree rooted here. */
+        private int size;
+        /**
+         * Constructs a leaf holding the given element.
+         *
+         * @param data the element to store
+         */
+        public tNode(T data){
+            this.data = data;
+            this.height = 1;
+            this.size = 1;
+        }
+    }
+    /** The root of the tree, or {@code null} when the list is empty. */
+    private tNode<T> root;
+    /** The element removed by the last call to {@link #delete(tNode, int)}. */
+    private T removed;
+    /** Scratch array of nodes reused by {@link #removeIf(Predicate)}. */
+    private tNode<T>[] nodes;
+    /**
+     * Creates an empty tree list.
+     */
+    public TreeList(){
+        this.root = null;
+    }
+    /**
+     * Inserts an element at the specified position in the list.
+     *
+     * @param index   the position at which the element is to be inserted
+     * @param element the element to insert
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size)
+     */
+    public void add(int index, T element){
+        if (index < 0 || index > size()){
+            throw new IndexOutOfBoundsException();
+        }
+        root = insert(root, index, element);
+    }
+    /**
+     * Appends an element to the end of the list.
+     *
+     * @param element the element to be added
+     * @return {@code true} if the element was successfully added
+     */
+    public boolean add(T element){
+        root = insert(root, size(), element);
+        return true;
+    }
+    /**
+     * Removes the element at the specified position in the list.
+     *
+     * @param index the position of the element to be removed
+     * @return the element that was removed
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size)
+     */
+    public T remove(int index){
+        if (index < 0 || index >= size()){
+            throw new IndexOutOfBoundsException();
+        }
+        root = delete(root, index);
+        T out = removed;
+        removed = null;
+        return out;
+    }
+    /**
+     * Returns the element at the specified position in the list.
+     *
+     * @param index the position of the element to retrieve
+     * @return the element at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size)
+     */
+    public T get(int index){
+        if (index < 0 || index >= size()){
+            throw new IndexOutOfBoundsException();
+        }
+        tNode<T> node = root;
+        while (true){
+            int left = size(node.left);
+            if (index < left){
+                node = node.left;
+            }
+            else if (index > left){
+                index -= left + 1;
+                node = node.right;
+            }
+            else{
+                return node.data;
+            }
+        }
+    }
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return the current size of the list
+     */
+    public int size(){
+        return size(root);
+    }
+    /**
+     * Removes every element that satisfies the given predicate in O(n): the nodes are
+     * collected in order, the survivors kept, and a perfectly balanced tree rebuilt from them.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public boolean removeIf(Predicate<? super T> filter){
+        int n = size();
+        if (nodes == null || nodes.length < n){
+            nodes = (tNode<T>[]) new tNode[Math.max(n, 16)];
+        }
+        collect(root, 0);
+        int kept = 0;
+        for (int i = 0; i < n; i++){
+            tNode<T> node = nodes[i];
+            if (!filter.test(node.data)){
+                nodes[kept] = node;
+                kept++;
+            }
+        }
+        if (kept != n){
+            root = build(0, kept);
+        }
+        for (int i = 0; i < n; i++){
+            nodes[i] = null;
+        }
+        return kept != n;
+    }
+    /**
+     * Returns the number of elements in a subtree.
+     */
+    private static int size(tNode<?> node){
+        return node == null ? 0 : node.size;
+    }
+    /**
+     * Returns the height of a subtree.
+     */
+    private static int height(tNode<?> node){
+        return node == null ? 0 : node.height;
+    }
+    /**
+     * Recomputes a node's height and size from its children.
+     */
+    private static void update(tNode<?> node){
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+    /**
+     * Inserts an element at {@code index} within a subtree.
+     *
+     * @return the new root of the subtree
+     */
+    private tNode<T> insert(tNode<T> node, int index, T element){
+        if (node == null){
+            return new tNode<>(element);
+        }
+        int left = size(node.left);
+        if (index <= left){
+            node.left = insert(node.left, index, element);
+        }
+        else{
+            node.right = insert(node.right, index - left - 1, element);
+        }
+        return balance(node);
+    }
+    /**
+     * Removes the element at {@code index} within a subtree, leaving it in {@link #removed}.
+     *
+     * @return the new root of the subtree
+     */
+    private tNode<T> delete(tNode<T> node, int index){
+        int left = size(node.left);
+        if (index < left){
+            node.left = delete(node.left, index);
+        }
+        else if (index > left){
+            node.right = delete(node.right, index - left - 1);
+        }
+        else{
+            removed = node.data;
+            if (node.left == null){
+                return node.right;
+            }
+            if (node.right == null){
+                return node.left;
+            }
+            // take over the next element's value and remove its node instead
+            tNode<T> successor = node.right;
+            while (successor.left != null){
+                successor = successor.left;
+            }
+            node.data = successor.data;
+            node.right = deleteFirst(node.right);
+        }
+        return balance(node);
+    }
+    /**
+     * Removes the first node of a subtree.
+     *
+     * @return the new root of the subtree
+     */
+    private tNode<T> deleteFirst(tNode<T> node){
+        if (node.left == null){
+            return node.right;
+        }
+        node.left = deleteFirst(node.left);
+        return balance(node);
+    }
+    /**
+     * Updates a node and rotates it back into AVL balance if its children's heights differ by two.
+     *
+     * @return the new root of the subtree
+     */
+    private tNode<T> balance(tNode<T> node){
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1){
+            if (height(node.left.left) < height(node.left.right)){
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1){
+            if (height(node.right.right) < height(node.right.left)){
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+    /**
+     * Rotates a subtree right, lifting its left child.
+     *
+     * @return the new root of the subtree
+     */
+    private tNode<T> rotateRight(tNode<T> node){
+        tNode<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+    /**
+     * Rotates a subtree left, lifting its right child.
+     *
+     * @return the new root of the subtree
+     */
+    private tNode<T> rotateLeft(tNode<T> node){
+        tNode<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+    /**
+     * Writes the nodes of a subtree into {@link #nodes} in order, starting at {@code at}.
+     *
+     * @return the position after the last node written
+     */
+    private int collect(tNode<T> node, int at){
+        while (node != null){
+            at = collect(node.left, at);
+            nodes[at] = node;
+            at++;
+            node = node.right;
+        }
+        return at;
+    }
+    /**
+     * Links {@code nodes[from, to)} into a perfectly balanced subtree.
+     *
+     * @return the root of the subtree, or {@code null} if the range is empty
+     */
+    private tNode<T> build(int from, int to){
+        if (from >= to){
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        tNode<T> node = nodes[mid];
+        node.left = build(from, mid);
+        node.right = build(mid + 1, to);
+        update(node);
+        return node;
+    }
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public Iterator<T> iterator(){
+        return new TreeListIterator();
+    }
+    /**
+     * Iterator that walks the tree in order with an explicit stack of the ancestors still to
+     * visit, so each step is O(1) amortised. Removing through it deletes by index and then
+     * rebuilds the stack for the next index in O(log n).
+     */
+    private class TreeListIterator implements Iterator<T> {
+        /** Nodes still to visit, innermost on top. */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private tNode<T>[] stack = (tNode<T>[]) new tNode[height(root) + 1];
+        /** Number of nodes on the stack. */
+        private int depth = 0;
+        /** Index of the next element to return. */
+        private int cursor = 0;
+        /** Index of the element last returned by {@code next()}, or -1 if there is none. */
+        private int lastReturned = -1;
+        /**
+         * Starts the walk at the first element.
+         */
+        TreeListIterator(){
+            pushLeft(root);
+        }
+
+        public boolean hasNext(){
+            return depth > 0;
+        }
+
+        public T next(){
+            if (depth == 0){
+                throw new NoSuchElementException();
+            }
+            depth--;
+            tNode<T> node = stack[depth];
+            stack[depth] = null;
+            pushLeft(node.right);
+            lastReturned = cursor;
+            cursor++;
+            return node.data;
+        }
+
+        public void remove(){
+            if (lastReturned < 0){
+                throw new IllegalStateException();
+            }
+            TreeList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            seek(cursor);
+        }
+        /**
+         * Pushes a node and its chain of left children.
+         */
+        private void pushLeft(tNode<T> node){
+            while (node != null){
+                stack[depth] = node;
+                depth++;
+                node = node.left;
+            }
+        }
+        /**
+         * Rebuilds the stack so the next element returned is the one at {@code index}.
+         */
+        private void seek(int index){
+            while (depth > 0){
+                depth--;
+                stack[depth] = null;
+            }
+            tNode<T> node = root;
+            while (node != null){
+                int left = size(node.left);
+                if (index <= left){
+                    stack[depth] = node;
+                    depth++;
+                    if (index == left){
+                        return;
+                    }
+                    node = node.left;
+                }
+                else{
+                    index -= left + 1;
+                    node = node.right;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,380 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+/**
+ * A generic unrolled linked list: a doubly linked list of nodes that each hold a small
+ * array of elements.
+ * <p>
+ * Consecutive elements share a node, so iterating reads mostly contiguous arrays and the
+ * per-element overhead is one array slot instead of a whole node object. Inserting or
+ * removing in the middle only shifts elements inside one node. Indexed access skips whole
+ * nodes by their element counts, starting from whichever end is closer, so {@code get(i)}
+ * costs O(n / capacity) instead of O(n).
+ * <p>
+ * A node that fills up is split in half; a node that drops below half full is merged with
+ * its successor when they fit together, which keeps nodes at least half full on average.
+ *
+ * @param <T> the type of elements stored in the list
+ */
+public class UnrolledLinkedList<T> implements List<T>{
+    /** Default number of elements each node can hold. */
+    public static final int DEFAULT_NODE_CAPACITY = 64;
+    /**
+     * A node holding up to {@link #capacity} consecutive elements.
+     *
+     * @param <T> the type of data stored in the node
+     */
+    private static class uNode<T>{
+        /** The elements in this node; slots at or past {@link #count} are {@code null}. */
+        private Object[] items;
+        /** The number of elements in this node. */
+        private int count;
+        /** The next node in the list. */
+        private uNode<T> next;
+        /** The previous node in the list. */
+        private uNode<T> previous;
+        /**
+         * Constructs an empty node.
+         *
+         * @param capacity the number of elements the node can hold
+         */
+        public uNode(int capacity){
+            this.items = new Object[capacity];
+            this.count = 0;
+        }
+        /**
+         * Returns the element in slot {@code i}.
+         *
+         * @param i the slot to read
+         * @return the element
+         */
+        @SuppressWarnings("unchecked")
+        public T get(int i){
+            return (T) items[i];
+        }
+        /**
+         * Removes the element in slot {@code i}, shifting the later ones left.
+         *
+         * @param i the slot to remove
+         * @return the removed element
+         */
+        public T remove(int i){
+            T out = get(i);
+            System.arraycopy(items, i + 1, items, i, count - i - 1);
+            count--;
+            items[count] = null;
+            return out;
+        }
+    }
+    /** Reference to the first node in the list. */
+    private uNode<T> head;
+    /** Reference to the last node in the list. */
+    private uNode<T> tail;
+    /** Number of elements in the list. */
+    private int size;
+    /** Number of elements each node can hold. */
+    private int capacity;
+    /** Offset within the node returned by the last call to {@link #nodeAt(int)}. */
+    private int offset;
+    /**
+     * Creates an empty unrolled linked list with {@value #DEFAULT_NODE_CAPACITY} elements per node.
+     */
+    public UnrolledLinkedList(){
+        this(DEFAULT_NODE_CAPACITY);
+    }
+    /**
+     * Creates an empty unrolled linked list.
+     *
+     * @param capacity the number of elements each node can hold, at least 2
+     * @throws IllegalArgumentException if {@code capacity} is less than 2
+     */
+    public UnrolledLinkedList(int capacity){
+        if (capacity < 2){
+            throw new IllegalArgumentException("Node capacity must be at least 2");
+        }
+        this.capacity = capacity;
+        this.head = null;
+        this.tail = null;
+        this.size = 0;
+    }
+    /**
+     * Inserts an element at the specified position in the list, splitting the node it
+     * lands in if that node is full.
+     *
+     * @param index   the position at which the element is to be inserted
+     * @param element the element to insert
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size)
+     */
+    public void add(int index, T element){
+        if (index < 0 || index > size){
+            throw new IndexOutOfBoundsException();
+        }
+        if (index == size){
+            add(element);
+            return;
+        }
+        uNode<T> node = nodeAt(index);
+        int i = offset;
+        if (node.count == capacity){
+            uNode<T> half = split(node);
+            if (i > node.count){
+                i -= node.count;
+                node = half;
+            }
+        }
+        System.arraycopy(node.items, i, node.items, i + 1, node.count - i);
+        node.items[i] = element;
+        node.count++;
+        size++;
+    }
+    /**
+     * Appends an element to the end of the list, starting a new node when the last one is full.
+     *
+     * @param element the element to be added
+     * @return {@code true} if the element was successfully added
+     */
+    public boolean add(T element){
+        if (tail == null || tail.count == capacity){
+            uNode<T> node = new uNode<>(capacity);
+            node.previous = tail;
+            if (tail == null){
+                head = node;
+            }
+            else{
+                tail.next = node;
+            }
+            tail = node;
+        }
+        tail.items[tail.count] = element;
+        tail.count++;
+        size++;
+        return true;
+    }
+    /**
+     * Removes the element at the specified position in the list, merging its node with the
+     * next one if it falls below half full.
+     *
+     * @param index the position of the element to be removed
+     * @return the element that was removed
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size)
+     */
+    public T remove(int index){
+        if (index < 0 || index >= size){
+            throw new IndexOutOfBoundsException();
+        }
+        uNode<T> node = nodeAt(index);
+        T out = node.remove(offset);
+        size--;
+        if (node.count == 0){
+            unlink(node);
+        }
+        else if (node.count < capacity / 2 && node.next != null && node.count + node.next.count <= capacity){
+            uNode<T> successor = node.next;
+            System.arraycopy(successor.items, 0, node.items, node.count, successor.count);
+            node.count += successor.count;
+            unlink(successor);
+        }
+        return out;
+    }
+    /**
+     * Returns the element at the specified position in the list.
+     *
+     * @param index the position of the element to retrieve
+     * @return the element at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size)
+     */
+    public T get(int index){
+        if (index < 0 || index >= size){
+            throw new IndexOutOfBoundsException();
+        }
+        uNode<T> node = nodeAt(index);
+        return node.get(offset);
+    }
+    /**
+     * Removes every element that satisfies the given predicate in a single walk of the list,
+     * packing the survivors into full nodes from the front and dropping the emptied nodes
+     * at the end.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return {@code true} if any elements were removed
+     */
+    public boolean removeIf(Predicate<? super T> filter){
+        int before = size;
+        // the write position never passes the read position: every node holds at most
+        // capacity elements, and the writes fill each node to capacity
+        uNode<T> write = head;
+        int w = 0;
+        for (uNode<T> read = head; read != null; read = read.next){
+            int n = read.count;
+            for (int i = 0; i < n; i++){
+                T element = read.get(i);
+                if (filter.test(element)){
+                    size--;
+                }
+                else{
+                    if (w == capacity){
+                        write.count = capacity;
+                        write = write.next;
+                        w = 0;
+                    }
+                    write.items[w] = element;
+                    w++;
+                }
+            }
+        }
+        if (size == 0){
+            head = null;
+            tail = null;
+        }
+        else if (write != null){
+            // survivors may have been repacked even if none were removed, so always trim the tail
+            for (int i = w; i < write.count; i++){
+                write.items[i] = null;
+            }
+            write.count = w;
+            tail = write;
+            write.next = null;
+        }
+        return size != before;
+    }
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return the current size of the list
+     */
+    public int size(){
+        return size;
+    }
+    /**
+     * Finds the node holding the element at {@code index} by skipping whole nodes, walking
+     * from the head or the tail, whichever is closer. The element's slot in that node is left
+     * in {@link #offset}.
+     *
+     * @param index a valid element index
+     * @return the node holding that element
+     */
+    private uNode<T> nodeAt(int index){
+        if (index < size / 2){
+            uNode<T> node = head;
+            while (index >= node.count){
+                index -= node.count;
+                node = node.next;
+            }
+            offset = index;
+            return node;
+        }
+        uNode<T> node = tail;
+        int start = size - node.count;
+        while (index < start){
+            node = node.previous;
+            start -= node.count;
+        }
+        offset = index - start;
+        return node;
+    }
+    /**
+     * Moves the upper half of a full node into a new node inserted after it.
+     *
+     * @param node the full node to split
+     * @return the new node
+     */
+    private uNode<T> split(uNode<T> node){
+        uNode<T> half = new uNode<>(capacity);
+        int keep = node.count / 2;
+        int moved = node.count - keep;
+        System.arraycopy(node.items, keep, half.items, 0, moved);
+        for (int i = keep; i < node.count; i++){
+            node.items[i] = null;
+        }
+        node.count = keep;
+        half.count = moved;
+        half.previous = node;
+        half.next = node.next;
+        if (node.next == null){
+            tail = half;
+        }
+        else{
+            node.next.previous = half;
+        }
+        node.next = half;
+        return half;
+    }
+    /**
+     * Removes a node from the chain.
+     *
+     * @param node the node to unlink
+     */
+    private void unlink(uNode<T> node){
+        if (node.previous == null){
+            head = node.next;
+        }
+        else{
+            node.previous.next = node.next;
+        }
+        if (node.next == null){
+            tail = node.previous;
+        }
+        else{
+            node.next.previous = node.previous;
+        }
+    }
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public Iterator<T> iterator(){
+        return new UnrolledLinkedListIterator();
+    }
+    /**
+     * Iterator that walks each node's array in turn; removing shifts the rest of that
+     * node left and unlinks the node if it becomes empty.
+     */
+    private class UnrolledLinkedListIterator implements Iterator<T> {
+        /** Node holding the element that will be returned next. */
+        private uNode<T> node = head;
+        /** Slot in {@link #node} of the element that will be returned next. */
+        private int index = 0;
+        /** Node holding the element last returned by {@code next()}, or {@code null} if there is none. */
+        private uNode<T> lastNode = null;
+        /** Slot in {@link #lastNode} of the element last returned by {@code next()}. */
+        private int lastIndex;
+
+        public boolean hasNext(){
+            while (node != null && index >= node.count){
+                node = node.next;
+                index = 0;
+            }
+            return node != null;
+        }
+
+        public T next(){
+            if (!hasNext()){
+                throw new NoSuchElementException();
+            }
+            lastNode = node;
+            lastIndex = index;
+            index++;
+            return node.get(lastIndex);
+        }
+
+        public void remove(){
+            if (lastNode == null){
+                throw new IllegalStateException();
+            }
+            lastNode.remove(lastIndex);
+            size--;
+            if (lastNode == node){
+                index--;
+            }
+            if (lastNode.count == 0){
+                if (lastNode == node){
+                    node = node.next;
+                    index = 0;
+                }
+                unlink(lastNode);
+            }
+            lastNode = null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+/**
+ * An {@link IntegrationKernel} written with the incubating Vector API.
+ * <p>
+ * Each iteration loads a full SIMD register of positions and velocities, adds them, stores
+ * the new positions and compares them against the window in the same registers, producing
+ * the out-of-bounds lanes as one mask that is written straight into the dead marks. The
+ * bodies left over after the last full register go through the scalar loop.
+ * <p>
+ * Compile and run with the module added:
+ * <pre>
+ *   javac -d out src/*.java
+ *   javac --add-modules jdk.incubator.vector -cp out -d out src/vector/*.java
+ *   java --add-modules jdk.incubator.vector -cp out MassiveMotion MassiveMotion.txt
+ * </pre>
+ */
+public class VectorKernel implements IntegrationKernel {
+    /** The widest double vector the CPU supports. */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /** Handles the bodies after the last full vector. */
+    private final ScalarKernel tail = new ScalarKernel();
+    /**
+     * Moves the bodies in {@code [from, to)} by one tick and marks the ones that left the window.
+     *
+     * @param x     the x-coordinate of every body
+     * @param y     the y-coordinate of every body
+     * @param vx    the velocity of every body in the x-direction
+     * @param vy    the velocity of every body in the y-direction
+     * @param dead  set to {@code true} for every body outside the window, {@code false} otherwise
+     * @param from  the first body to move
+     * @param to    one past the last body to move
+     * @param w     the width of the window
+     * @param h     the height of the window
+     * @return the number of bodies marked
+     */
+    public int moveAndMark(double[] x, double[] y, double[] vx, double[] vy, boolean[] dead,
+                           int from, int to, int w, int h){
+        int lanes = SPECIES.length();
+        int bound = from + SPECIES.loopBound(to - from);
+        int marked = 0;
+        int i = from;
+        for (; i < bound; i += lanes){
+            DoubleVector px = DoubleVector.fromArray(SPECIES, x, i).add(DoubleVector.fromArray(SPECIES, vx, i));
+            DoubleVector py = DoubleVector.fromArray(SPECIES, y, i).add(DoubleVector.fromArray(SPECIES, vy, i));
+            px.intoArray(x, i);
+            py.intoArray(y, i);
+            VectorMask<Double> out = px.compare(VectorOperators.LT, 0)
+                    .or(px.compare(VectorOperators.GE, w))
+                    .or(py.compare(VectorOperators.LT, 0))
+                    .or(py.compare(VectorOperators.GE, h));
+            out.intoArray(dead, i);
+            marked += out.trueCount();
+        }
+        return marked + tail.moveAndMark(x, y, vx, vy, dead, i, to, w, h);
+    }
+}